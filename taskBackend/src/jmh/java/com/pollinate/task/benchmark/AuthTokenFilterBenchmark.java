@@ -0,0 +1,71 @@
+package com.pollinate.task.benchmark;
+
+import com.pollinate.task.configuration.AppConfigurationProperties;
+import com.pollinate.task.security.AuthTokenFilter;
+import com.pollinate.task.security.JwtUtil;
+import com.pollinate.task.security.TokenDenylist;
+import com.pollinate.task.security.UserVersionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full AuthTokenFilter pass for an authenticated request carrying the JWT cookie,
+ * with the principal built from claims (stateless mode).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthTokenFilterBenchmark {
+
+    private static final String ALREADY_FILTERED = AuthTokenFilter.class.getName() + OncePerRequestFilter.ALREADY_FILTERED_SUFFIX;
+
+    @Param({"0", "10000"})
+    public int verifiedCacheSize;
+
+    private AuthTokenFilter filter;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    private final FilterChain chain = (req, res) -> { };
+
+    @Setup
+    public void setup() {
+        JwtUtil jwtUtil = JwtVerifyBenchmark.jwtUtil(verifiedCacheSize);
+        AppConfigurationProperties properties = (AppConfigurationProperties) ReflectionTestUtils.getField(jwtUtil, "properties");
+        properties.setStateless(true);
+
+        filter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtil);
+        ReflectionTestUtils.setField(filter, "properties", properties);
+        ReflectionTestUtils.setField(filter, "userVersions", ReflectionTestUtils.getField(jwtUtil, "userVersions"));
+        ReflectionTestUtils.setField(filter, "denylist", new TokenDenylist(new SimpleMeterRegistry()));
+
+        request = new MockHttpServletRequest("GET", "/tasks");
+        request.setCookies(new Cookie(properties.getName(), jwtUtil.generateToken("alice")));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        filter.doFilter(request, response, chain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        // reset per-request state so every invocation takes the full path
+        request.removeAttribute(ALREADY_FILTERED);
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
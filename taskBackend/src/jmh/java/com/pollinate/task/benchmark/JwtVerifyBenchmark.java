@@ -0,0 +1,100 @@
+package com.pollinate.task.benchmark;
+
+import com.pollinate.task.configuration.AppConfigurationProperties;
+import com.pollinate.task.configuration.ReplicaConfigurationProperties;
+import com.pollinate.task.datasource.RecentWriters;
+import com.pollinate.task.repository.UserRepository;
+import com.pollinate.task.security.JwtUtil;
+import com.pollinate.task.security.UserVersionRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per-request cost of turning the JWT cookie into claims.
+ * legacyValidateThenParse reproduces the old filter path: two freshly built parsers and two
+ * signature checks per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+// the legacy path builds two parsers per call and takes about 20s to settle on one core
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class JwtVerifyBenchmark {
+
+    private static final String SECRET = "thisIsMysecregtfrdesww233eggtffeeddgkjjhhtdhttebd54ndhdhfhhhshs8877465sbbdd";
+
+    private SecretKey key;
+
+    private JwtUtil uncached;
+
+    private JwtUtil cached;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        uncached = jwtUtil(0);
+        cached = jwtUtil(10_000);
+        token = uncached.generateToken("alice");
+    }
+
+    static JwtUtil jwtUtil(int cacheSize) {
+        AppConfigurationProperties properties = new AppConfigurationProperties();
+        properties.setSecret(SECRET);
+        properties.setExpiration(3_600_000);
+        properties.setName("JWT");
+        properties.setVerifiedCacheSize(cacheSize);
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "properties", properties);
+        properties.setUserVersionCacheSize(1_000);
+        // every benchmark user is at version 0, served from the registry's cache after the first check
+        UserRepository users = mock(UserRepository.class);
+        when(users.findTokenVersionByUsername(anyString())).thenReturn(0);
+        ReflectionTestUtils.setField(jwtUtil, "userVersions", new UserVersionRegistry(
+                users, new RecentWriters(new ReplicaConfigurationProperties()), properties));
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return uncached.generateToken("alice");
+    }
+
+    @Benchmark
+    public boolean validateJwtToken() {
+        return uncached.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String legacyValidateThenParse() {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public Claims verifyReusedParser() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return cached.verify(token);
+    }
+}
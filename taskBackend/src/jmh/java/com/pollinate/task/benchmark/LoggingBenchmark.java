@@ -0,0 +1,101 @@
+package com.pollinate.task.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of one INFO line per simulated request from 8 threads, writing to a file
+ * synchronously (every caller takes the appender lock and does the I/O) versus through the
+ * non-blocking AsyncAppender used in logback-spring.xml. The "debug" variant is the cost of a
+ * hot-path message after it was moved to DEBUG.
+ * <p>
+ * The async numbers are the caller-side cost: once the queue is full, INFO events are
+ * dropped rather than written, which is the point of the setup but means the file holds
+ * fewer lines than were logged.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class LoggingBenchmark {
+
+    @Param({"sync", "async", "debug"})
+    public String mode;
+
+    private LoggerContext context;
+
+    private Logger logger;
+
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        file = Files.createTempFile("logging-benchmark", ".log");
+        context = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{ISO8601} %-5level [%thread] %logger{36} requestId=%X{requestId} user=%X{user} - %msg%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> appender = fileAppender;
+        if (!mode.equals("sync")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(fileAppender);
+            async.start();
+            appender = async;
+        }
+
+        logger = context.getLogger("com.pollinate.task.service.TaskService");
+        logger.setLevel(mode.equals("debug") ? Level.INFO : Level.DEBUG);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void logPerRequest() {
+        MDC.put("requestId", "5f1c2a9e0b7d4c31");
+        MDC.put("user", "alice");
+        try {
+            if (mode.equals("debug")) {
+                logger.debug("Retrieving tasks for user {}", "alice");
+            } else {
+                logger.info("Retrieving tasks for user {}", "alice");
+            }
+        } finally {
+            MDC.remove("requestId");
+            MDC.remove("user");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.pollinate.task.benchmark;
+
+import com.pollinate.task.TaskApplication;
+import com.pollinate.task.model.Task;
+import com.pollinate.task.model.TaskView;
+import com.pollinate.task.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * One owner's full task list read as managed Task entities (the read path before the
+ * TaskView split) against the TaskView constructor projection used now, both inside a
+ * transaction as in the service. Compare gc.alloc.rate.norm from the gc profiler for the
+ * allocation side.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskReadProjectionBenchmark {
+
+    private static final String OWNER = "bench-user";
+
+    @Param({"100", "10000"})
+    public int tasks;
+
+    private ConfigurableApplicationContext context;
+
+    private TaskRepository taskRepository;
+
+    private EntityManager entityManager;
+
+    private TransactionTemplate transaction;
+
+    @Setup
+    public void setup() {
+        // servlet context on a random port: the security configuration needs one. Command-line
+        // arguments, because builder properties lose to application.properties
+        context = new SpringApplicationBuilder(TaskApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:projection-" + tasks + ";DB_CLOSE_DELAY=-1",
+                "--tasks.search.warm-on-startup=false",
+                "--registration.warm-on-startup=false",
+                "--logging.level.root=WARN");
+        taskRepository = context.getBean(TaskRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        LocalDate today = LocalDate.now();
+        taskRepository.saveAll(IntStream.range(0, tasks)
+                .mapToObj(i -> Task.builder()
+                        .title("Task " + i)
+                        .dueDate(today.plusDays(1 + i % 365))
+                        .owner(OWNER)
+                        .build())
+                .toList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Task> entities() {
+        // hydrated, registered in the persistence context and snapshotted for dirty checking
+        return transaction.execute(status -> entityManager
+                .createQuery("select t from Task t where t.owner = :owner", Task.class)
+                .setParameter("owner", OWNER)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<TaskView> projection() {
+        return transaction.execute(status -> taskRepository.findViewsByOwner(OWNER));
+    }
+}
@@ -0,0 +1,58 @@
+package com.pollinate.task.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pollinate.task.model.TaskResponse;
+import com.pollinate.task.model.TaskView;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Jackson cost of writing a TaskResponse body, using the same ObjectMapper defaults
+ * Spring Boot applies to the MVC message converter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskResponseSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int tasks;
+
+    private ObjectMapper objectMapper;
+
+    private TaskResponse response;
+
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDate today = LocalDate.now();
+        List<TaskView> list = LongStream.range(0, tasks)
+                .mapToObj(i -> TaskView.builder()
+                        .id(i)
+                        .title("Task number " + i)
+                        .dueDate(i % 5 == 0 ? null : today.plusDays(i % 365))
+                        .build())
+                .toList();
+        response = TaskResponse.builder().tasks(list).build();
+        out = new ByteArrayOutputStream(tasks * 96);
+    }
+
+    @Benchmark
+    public int writeTaskResponse() throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, response);
+        return out.size();
+    }
+}
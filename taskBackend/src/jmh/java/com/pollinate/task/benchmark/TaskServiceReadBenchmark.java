@@ -0,0 +1,88 @@
+package com.pollinate.task.benchmark;
+
+import com.pollinate.task.TaskApplication;
+import com.pollinate.task.model.Task;
+import com.pollinate.task.model.TaskPage;
+import com.pollinate.task.model.TaskPageQuery;
+import com.pollinate.task.model.TaskView;
+import com.pollinate.task.repository.TaskRepository;
+import com.pollinate.task.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * TaskService reads against the real JPA stack on an in-memory H2 seeded with one owner's
+ * tasks. The per-owner cache can be toggled to compare cached and uncached reads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceReadBenchmark {
+
+    private static final String OWNER = "bench-user";
+
+    @Param({"10", "1000", "10000"})
+    public int tasks;
+
+    @Param({"false", "true"})
+    public boolean cache;
+
+    private ConfigurableApplicationContext context;
+
+    private TaskService taskService;
+
+    private final Authentication authentication = new UsernamePasswordAuthenticationToken(OWNER, "N/A");
+
+    @Setup
+    public void setup() {
+        // servlet context on a random port: the security configuration needs one. Command-line
+        // arguments, because builder properties lose to application.properties
+        context = new SpringApplicationBuilder(TaskApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + tasks + "-" + cache + ";DB_CLOSE_DELAY=-1",
+                "--tasks.cache.enabled=" + cache,
+                "--tasks.search.warm-on-startup=false",
+                "--registration.warm-on-startup=false",
+                "--logging.level.root=WARN");
+        taskService = context.getBean(TaskService.class);
+
+        LocalDate today = LocalDate.now();
+        List<Task> seed = IntStream.range(0, tasks)
+                .mapToObj(i -> Task.builder()
+                        .title("Task " + i)
+                        .dueDate(today.plusDays(1 + i % 365))
+                        .owner(OWNER)
+                        .build())
+                .toList();
+        context.getBean(TaskRepository.class).saveAll(seed);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TaskView> getTasks() {
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return taskService.getTasks();
+    }
+
+    @Benchmark
+    public TaskPage getFirstPage() {
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return taskService.getTaskPage(TaskPageQuery.builder().limit(50).build());
+    }
+}
@@ -0,0 +1,44 @@
+package com.pollinate.task.benchmark;
+
+import com.pollinate.task.security.TokenBucketLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The admitted path of the rate limiter, as RateLimitFilter takes it on every request:
+ * four threads on one hot key (worst case for the CAS) and spread over many keys.
+ * Limits are high enough that nothing is rejected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class TokenBucketLimiterBenchmark {
+
+    @Param({"1", "10000"})
+    public int keys;
+
+    private TokenBucketLimiter limiter;
+
+    private String[] names;
+
+    @Setup
+    public void setup() {
+        limiter = new TokenBucketLimiter(1e9, 1_000_000, 100_000);
+        names = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            names[i] = "user-" + i;
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        String key = names[keys == 1 ? 0 : ThreadLocalRandom.current().nextInt(keys)];
+        return limiter.tryAcquire(key, System.nanoTime());
+    }
+}
@@ -0,0 +1,246 @@
+package com.pollinate.task.loadtest;
+
+import com.pollinate.task.TaskApplication;
+import org.flywaydb.core.Flyway;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cold-start measurement for the prod profile: seeds a file-backed H2 with millions of
+ * tasks once, then repeatedly starts the application in a fresh JVM against it and times
+ * process start to a healthy /actuator/health, and to the first authenticated
+ * GET /tasks page.
+ * <p>
+ * A fresh JVM per run is the point: nothing (class data, JIT, H2 page cache) carries over
+ * from the previous start except what the operating system keeps of the database file.
+ * <p>
+ * With baseline=true each run undoes the prod profile's startup shortcuts (schema
+ * validation, eager repositories, warming the search index and username set), which is
+ * how the application started before them, for a before/after on the same database.
+ */
+public class ColdStartProbe {
+
+    private static final String PASSWORD = "cold-start-password";
+
+    private static final int INSERT_BATCH = 10_000;
+
+    // the defaults from application.properties that application-prod.properties overrides
+    private static final List<String> BASELINE = List.of(
+            "--spring.jpa.hibernate.ddl-auto=validate",
+            "--spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=true",
+            "--spring.data.jpa.repositories.bootstrap-mode=default",
+            "--tasks.search.warm-on-startup=true",
+            "--registration.warm-on-startup=true");
+
+    private final Path dataDir;
+
+    private final int tasks;
+
+    private final int owners;
+
+    private final int runs;
+
+    private final boolean baseline;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = LoadTestConfig.keyValues(args);
+        ColdStartProbe probe = new ColdStartProbe(
+                Path.of(values.getOrDefault("dir", "target/coldstart")).toAbsolutePath(),
+                Integer.parseInt(values.getOrDefault("tasks", "2000000")),
+                Integer.parseInt(values.getOrDefault("owners", "1000")),
+                Integer.parseInt(values.getOrDefault("runs", "3")),
+                Boolean.parseBoolean(values.getOrDefault("baseline", "false")));
+        probe.run(Boolean.parseBoolean(values.getOrDefault("reseed", "false")));
+        System.exit(0);
+    }
+
+    ColdStartProbe(Path dataDir, int tasks, int owners, int runs, boolean baseline) {
+        this.dataDir = dataDir;
+        this.tasks = tasks;
+        this.owners = owners;
+        this.runs = runs;
+        this.baseline = baseline;
+    }
+
+    void run(boolean reseed) throws Exception {
+        if (reseed || !Files.exists(dataDir.resolve("tasks.mv.db"))) {
+            seed();
+        } else {
+            System.out.println("Reusing the database in " + dataDir + " (reseed=true to rebuild it)");
+        }
+        for (int run = 1; run <= runs; run++) {
+            measure(run);
+        }
+    }
+
+    private void seed() throws IOException, SQLException {
+        if (Files.exists(dataDir)) {
+            try (Stream<Path> files = Files.walk(dataDir)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+        Files.createDirectories(dataDir);
+        String url = "jdbc:h2:file:" + dataDir.resolve("tasks");
+        long start = System.nanoTime();
+        // the same migrations the application runs, so its startup finds an up-to-date history
+        Flyway.configure().dataSource(url, "sa", "password").locations("classpath:db/migration").load().migrate();
+
+        try (Connection connection = DriverManager.getConnection(url, "sa", "password")) {
+            connection.setAutoCommit(false);
+            // every seeded user shares one password, so hash it once
+            String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+            try (PreparedStatement insert = connection.prepareStatement("insert into users (username, password) values (?, ?)")) {
+                for (int u = 0; u < owners; u++) {
+                    insert.setString(1, username(u));
+                    insert.setString(2, hash);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+
+            Random random = new Random(42);
+            LocalDate today = LocalDate.now();
+            try (PreparedStatement insert = connection.prepareStatement("insert into tasks (id, title, due_date, owner) values (?, ?, ?, ?)")) {
+                for (int id = 1; id <= tasks; id++) {
+                    insert.setLong(1, id);
+                    insert.setString(2, "Seeded task " + id);
+                    // a tenth undated, the rest spread over the past and the next year
+                    insert.setDate(3, random.nextInt(10) == 0 ? null : Date.valueOf(today.plusDays(random.nextInt(730) - 365)));
+                    insert.setString(4, username(id % owners));
+                    insert.addBatch();
+                    if (id % INSERT_BATCH == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+                insert.executeBatch();
+            }
+            try (Statement statement = connection.createStatement()) {
+                // past the seeded ids, including the block the pooled generator takes below its value
+                statement.execute("alter sequence tasks_seq restart with " + (tasks + 51));
+            }
+            connection.commit();
+        }
+        System.out.printf("Seeded %d users and %d tasks in %dms%n", owners, tasks,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void measure(int run) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        String baseUrl = "http://localhost:" + port;
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> command = new ArrayList<>(List.of(java, "-Xms1g", "-Xmx1g",
+                "-classpath", System.getProperty("java.class.path"),
+                TaskApplication.class.getName(),
+                "--spring.profiles.active=prod",
+                "--server.port=" + port));
+        if (baseline) {
+            command.addAll(BASELINE);
+        }
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(dataDir.resolve("run-" + run + ".log").toFile());
+        builder.environment().put("TASKS_DATA_DIR", dataDir.toString());
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try {
+            awaitHealthy(process, baseUrl);
+            long healthy = System.nanoTime();
+
+            HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"username\":\"" + username(0) + "\",\"password\":\"" + PASSWORD + "\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            expect(200, login, "login");
+            long loggedIn = System.nanoTime();
+
+            String cookie = login.headers().firstValue("Set-Cookie").orElseThrow().split(";", 2)[0];
+            HttpResponse<String> page = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/tasks?limit=50"))
+                    .header("Cookie", cookie)
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            expect(200, page, "GET /tasks");
+            long firstPage = System.nanoTime();
+
+            System.out.printf("Run %d%s: healthy after %dms, first /tasks page after %dms (login %dms, page %dms)%n",
+                    run, baseline ? " (baseline)" : "", millis(healthy - start), millis(firstPage - start),
+                    millis(loggedIn - healthy), millis(firstPage - loggedIn));
+        } finally {
+            // SIGTERM, so the pool and the database file are closed as in a real restart
+            process.destroy();
+            if (!process.waitFor(60, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void awaitHealthy(Process process, String baseUrl) throws InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).GET().build();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue()
+                        + ", see the run log in " + dataDir);
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException notListeningYet) {
+                // port not bound yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("Not healthy within 5 minutes, see the run log in " + dataDir);
+    }
+
+    private static void expect(int status, HttpResponse<String> response, String what) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException(what + " failed with " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private static String username(int index) {
+        return "cold-user-" + index;
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
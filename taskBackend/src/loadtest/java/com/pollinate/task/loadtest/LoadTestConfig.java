@@ -0,0 +1,85 @@
+package com.pollinate.task.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, parsed from key=value arguments. Every key has a default so the
+ * driver runs with no arguments at all.
+ */
+public class LoadTestConfig {
+
+    // seeded users and tasks per user, inserted straight through the repositories
+    final int users;
+    final int tasksPerUser;
+
+    // users created through POST /register during setup
+    final int registrations;
+
+    // open-model arrival rate in requests per second, independent of response times
+    final int rate;
+    final Duration warmup;
+    final Duration duration;
+
+    final Map<TaskOperation, Integer> mix;
+
+    // Spring profiles for the app under test, e.g. "virtual"
+    final String profiles;
+
+    // BCrypt cost for the run; low so that logging in every seeded user stays quick
+    final int passwordStrength;
+
+    final Path output;
+
+    private LoadTestConfig(Map<String, String> values) {
+        this.users = Integer.parseInt(values.getOrDefault("users", "50"));
+        this.tasksPerUser = Integer.parseInt(values.getOrDefault("tasksPerUser", "200"));
+        this.registrations = Integer.parseInt(values.getOrDefault("registrations", "20"));
+        this.rate = Integer.parseInt(values.getOrDefault("rate", "500"));
+        this.warmup = Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10")));
+        this.duration = Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60")));
+        this.mix = parseMix(values.getOrDefault("mix", "list:60,page:15,create:10,update:10,delete:5"));
+        this.profiles = values.getOrDefault("profiles", "");
+        this.passwordStrength = Integer.parseInt(values.getOrDefault("passwordStrength", "4"));
+        this.output = Path.of(values.getOrDefault("output", "target/loadtest"));
+    }
+
+    static LoadTestConfig parse(String[] args) {
+        return new LoadTestConfig(keyValues(args));
+    }
+
+    static Map<String, String> keyValues(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        Arrays.stream(args)
+                .flatMap(arg -> Arrays.stream(arg.trim().split("\\s+")))
+                .filter(arg -> !arg.isBlank())
+                .forEach(arg -> {
+                    int eq = arg.indexOf('=');
+                    if (eq < 0) {
+                        throw new IllegalArgumentException("Expected key=value but got: " + arg);
+                    }
+                    values.put(arg.substring(0, eq), arg.substring(eq + 1));
+                });
+        return values;
+    }
+
+    private static Map<TaskOperation, Integer> parseMix(String value) {
+        Map<TaskOperation, Integer> mix = new EnumMap<>(TaskOperation.class);
+        for (String part : value.split(",")) {
+            String[] kv = part.split(":");
+            mix.put(TaskOperation.valueOf(kv[0].trim().toUpperCase()), Integer.parseInt(kv[1].trim()));
+        }
+        return mix;
+    }
+
+    @Override
+    public String toString() {
+        return "users=" + users + " tasksPerUser=" + tasksPerUser + " registrations=" + registrations
+                + " rate=" + rate + "/s warmup=" + warmup.toSeconds() + "s duration=" + duration.toSeconds()
+                + "s mix=" + mix + " profiles=" + (profiles.isEmpty() ? "default" : profiles);
+    }
+}
@@ -0,0 +1,307 @@
+package com.pollinate.task.loadtest;
+
+import com.pollinate.task.TaskApplication;
+import com.pollinate.task.model.AuthRequest;
+import com.pollinate.task.model.Task;
+import com.pollinate.task.repository.TaskRepository;
+import com.pollinate.task.repository.UserRepository;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end load test: boots the application on a random port against an in-memory H2,
+ * seeds users and tasks, logs every user in through /login and then drives a CRUD mix
+ * over HTTP at a fixed arrival rate.
+ * <p>
+ * Requests are scheduled on an open model and latency is measured from each request's
+ * intended start time, so a stalled server shows up in the percentiles instead of quietly
+ * slowing the generator down (coordinated omission).
+ */
+public class LoadTestDriver {
+
+    private static final String PASSWORD = "load-test-password";
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final LoadTestConfig config;
+
+    private final HttpClient client;
+
+    private String baseUrl;
+
+    private String cookieName;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        System.out.println("Load test: " + config);
+        new LoadTestDriver(config).run();
+        System.exit(0);
+    }
+
+    LoadTestDriver(LoadTestConfig config) {
+        this.config = config;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    void run() throws Exception {
+        try (ConfigurableApplicationContext context = start()) {
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            cookieName = context.getEnvironment().getRequiredProperty("jwt.name");
+
+            List<VirtualUser> users = seed(context);
+            Histogram register = register();
+            Histogram login = login(users);
+
+            System.out.printf("Warming up for %ds%n", config.warmup.toSeconds());
+            drive(users, config.warmup);
+            System.out.printf("Measuring for %ds at %d req/s%n", config.duration.toSeconds(), config.rate);
+            RunResult result = drive(users, config.duration);
+
+            Files.createDirectories(config.output);
+            report("register", register, 0, null);
+            report("login", login, 0, null);
+            Histogram total = new Histogram(3);
+            for (TaskOperation op : TaskOperation.values()) {
+                Histogram histogram = result.latencies.get(op);
+                if (histogram.getTotalCount() > 0) {
+                    total.add(histogram);
+                    report(op.name().toLowerCase(), histogram, result.errors.get(op).sum(), config.duration);
+                }
+            }
+            report("total", total, result.errors.values().stream().mapToLong(LongAdder::sum).sum(), config.duration);
+            System.out.println("Skipped (no task left to act on): " + result.skipped.sum());
+            System.out.println("Histograms written to " + config.output.toAbsolutePath());
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(TaskApplication.class);
+        if (!config.profiles.isBlank()) {
+            builder.profiles(config.profiles.split(","));
+        }
+        // command-line arguments, not builder properties: those are only defaults and
+        // application.properties would win over every one of them
+        return builder.run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--password.strength=" + config.passwordStrength,
+                // every virtual user comes from one address; keep the limiter in the path but out of the way
+                "--rate-limit.user.requests-per-second=1000000",
+                "--rate-limit.user.burst=1000000",
+                "--rate-limit.ip.requests-per-second=1000000",
+                "--rate-limit.ip.burst=1000000",
+                "--logging.level.com.pollinate=WARN");
+    }
+
+    private List<VirtualUser> seed(ConfigurableApplicationContext context) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        TaskRepository taskRepository = context.getBean(TaskRepository.class);
+        // every seeded user shares one password, so hash it once
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+
+        long start = System.nanoTime();
+        List<VirtualUser> users = new ArrayList<>(config.users);
+        for (int u = 0; u < config.users; u++) {
+            String username = "load-user-" + u;
+            userRepository.save(AuthRequest.builder().username(username).password(hash).build());
+            List<Task> tasks = new ArrayList<>(config.tasksPerUser);
+            for (int t = 0; t < config.tasksPerUser; t++) {
+                tasks.add(Task.builder()
+                        .title("Seeded task " + t)
+                        .dueDate(LocalDate.now().plusDays(1 + ThreadLocalRandom.current().nextInt(365)))
+                        .owner(username)
+                        .build());
+            }
+            List<Long> ids = taskRepository.saveAll(tasks).stream().map(Task::getId).toList();
+            users.add(new VirtualUser(username, ids));
+        }
+        System.out.printf("Seeded %d users x %d tasks in %dms%n", config.users, config.tasksPerUser,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return users;
+    }
+
+    private Histogram register() throws IOException, InterruptedException {
+        Histogram histogram = new Histogram(3);
+        for (int i = 0; i < config.registrations; i++) {
+            String body = credentials("load-register-" + i);
+            long start = System.nanoTime();
+            HttpResponse<String> response = send(post("/register", body));
+            histogram.recordValue(System.nanoTime() - start);
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Register failed with " + response.statusCode() + ": " + response.body());
+            }
+        }
+        return histogram;
+    }
+
+    private Histogram login(List<VirtualUser> users) throws InterruptedException, ExecutionException {
+        Histogram histogram = new ConcurrentHistogram(3);
+        List<Future<?>> logins = new ArrayList<>(users.size());
+        // log in concurrently so the bounded hashing pool and its 503 back-pressure are exercised
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (VirtualUser user : users) {
+                logins.add(executor.submit(() -> {
+                    long start = System.nanoTime();
+                    HttpResponse<String> response = send(post("/login", credentials(user.username)));
+                    while (response.statusCode() == 503) {
+                        long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+                        Thread.sleep(TimeUnit.SECONDS.toMillis(retryAfter));
+                        response = send(post("/login", credentials(user.username)));
+                    }
+                    histogram.recordValue(System.nanoTime() - start);
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Login failed for " + user.username + " with " + response.statusCode());
+                    }
+                    user.setCookie(cookie(response));
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> result : logins) {
+            result.get();
+        }
+        return histogram;
+    }
+
+    private RunResult drive(List<VirtualUser> users, Duration length) {
+        RunResult result = new RunResult();
+        int[] weights = new int[TaskOperation.values().length];
+        int totalWeight = 0;
+        for (TaskOperation op : TaskOperation.values()) {
+            totalWeight += config.mix.getOrDefault(op, 0);
+            weights[op.ordinal()] = totalWeight;
+        }
+
+        Phaser inFlight = new Phaser(1);
+        long interval = TimeUnit.SECONDS.toNanos(1) / config.rate;
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        for (long intended = start; intended < end; intended += interval) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            TaskOperation op = pick(weights, totalWeight);
+            VirtualUser user = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+            HttpRequest request = op.build(baseUrl, user);
+            if (request == null) {
+                result.skipped.increment();
+                continue;
+            }
+
+            long scheduledAt = intended;
+            inFlight.register();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        result.latencies.get(op).recordValue(System.nanoTime() - scheduledAt);
+                        if (error != null || response.statusCode() >= 400) {
+                            result.errors.get(op).increment();
+                        } else if (op == TaskOperation.CREATE) {
+                            Matcher matcher = ID.matcher(response.body());
+                            if (matcher.find()) {
+                                user.addTaskId(Long.parseLong(matcher.group(1)));
+                            }
+                        }
+                        inFlight.arriveAndDeregister();
+                    });
+        }
+        inFlight.arriveAndAwaitAdvance();
+        return result;
+    }
+
+    private static TaskOperation pick(int[] weights, int totalWeight) {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (TaskOperation op : TaskOperation.values()) {
+            if (roll < weights[op.ordinal()]) {
+                return op;
+            }
+        }
+        throw new IllegalStateException("Empty operation mix");
+    }
+
+    private void report(String name, Histogram histogram, long errors, Duration window) throws IOException {
+        double scale = TimeUnit.MILLISECONDS.toNanos(1);
+        String throughput = window == null ? ""
+                : String.format(" %8.1f req/s", histogram.getTotalCount() / (double) window.toSeconds());
+        System.out.printf("%-9s n=%-8d err=%-6d%s  p50=%.2fms p95=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+                name, histogram.getTotalCount(), errors, throughput,
+                histogram.getValueAtPercentile(50) / scale,
+                histogram.getValueAtPercentile(95) / scale,
+                histogram.getValueAtPercentile(99) / scale,
+                histogram.getValueAtPercentile(99.9) / scale,
+                histogram.getMaxValue() / scale);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(config.output.resolve(name + ".hgrm")))) {
+            histogram.outputPercentileDistribution(out, scale);
+        }
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String cookie(HttpResponse<?> response) {
+        return response.headers().allValues("Set-Cookie").stream()
+                .map(header -> header.split(";", 2)[0])
+                .filter(pair -> pair.startsWith(cookieName + "="))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Login response did not set " + cookieName));
+    }
+
+    private static String credentials(String username) {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private static final class RunResult {
+        final Map<TaskOperation, Histogram> latencies = new EnumMap<>(TaskOperation.class);
+        final Map<TaskOperation, LongAdder> errors = new EnumMap<>(TaskOperation.class);
+        final LongAdder skipped = new LongAdder();
+
+        RunResult() {
+            for (TaskOperation op : TaskOperation.values()) {
+                latencies.put(op, new ConcurrentHistogram(3));
+                errors.put(op, new LongAdder());
+            }
+        }
+    }
+}
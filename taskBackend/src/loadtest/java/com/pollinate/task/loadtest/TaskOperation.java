@@ -0,0 +1,66 @@
+package com.pollinate.task.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The request types in the traffic mix. Each builds its request for one virtual user,
+ * or returns null when that user has nothing to act on (e.g. no task left to delete).
+ */
+enum TaskOperation {
+
+    LIST {
+        @Override
+        HttpRequest build(String baseUrl, VirtualUser user) {
+            return user.request(URI.create(baseUrl + "/tasks")).GET().build();
+        }
+    },
+    PAGE {
+        @Override
+        HttpRequest build(String baseUrl, VirtualUser user) {
+            LocalDate after = LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(1, 300));
+            return user.request(URI.create(baseUrl + "/tasks?limit=20&dueAfter=" + after)).GET().build();
+        }
+    },
+    CREATE {
+        @Override
+        HttpRequest build(String baseUrl, VirtualUser user) {
+            return user.request(URI.create(baseUrl + "/tasks"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(taskJson("Load task")))
+                    .build();
+        }
+    },
+    UPDATE {
+        @Override
+        HttpRequest build(String baseUrl, VirtualUser user) {
+            Long id = user.anyTaskId();
+            if (id == null) {
+                return null;
+            }
+            return user.request(URI.create(baseUrl + "/tasks/" + id))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(taskJson("Updated load task")))
+                    .build();
+        }
+    },
+    DELETE {
+        @Override
+        HttpRequest build(String baseUrl, VirtualUser user) {
+            Long id = user.takeTaskId();
+            if (id == null) {
+                return null;
+            }
+            return user.request(URI.create(baseUrl + "/tasks/" + id)).DELETE().build();
+        }
+    };
+
+    abstract HttpRequest build(String baseUrl, VirtualUser user);
+
+    private static String taskJson(String title) {
+        LocalDate due = LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(1, 365));
+        return "{\"title\":\"" + title + "\",\"dueDate\":\"" + due + "\"}";
+    }
+}
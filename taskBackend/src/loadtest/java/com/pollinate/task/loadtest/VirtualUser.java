@@ -0,0 +1,53 @@
+package com.pollinate.task.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A seeded user: its login cookie and the ids of tasks it can update or delete.
+ */
+class VirtualUser {
+
+    final String username;
+
+    private volatile String cookie;
+
+    private final List<Long> taskIds;
+
+    VirtualUser(String username, List<Long> taskIds) {
+        this.username = username;
+        this.taskIds = new ArrayList<>(taskIds);
+    }
+
+    void setCookie(String cookie) {
+        this.cookie = cookie;
+    }
+
+    HttpRequest.Builder request(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Cookie", cookie);
+    }
+
+    Long anyTaskId() {
+        synchronized (taskIds) {
+            return taskIds.isEmpty() ? null : taskIds.get(ThreadLocalRandom.current().nextInt(taskIds.size()));
+        }
+    }
+
+    Long takeTaskId() {
+        synchronized (taskIds) {
+            return taskIds.isEmpty() ? null : taskIds.remove(taskIds.size() - 1);
+        }
+    }
+
+    void addTaskId(long id) {
+        synchronized (taskIds) {
+            taskIds.add(id);
+        }
+    }
+}
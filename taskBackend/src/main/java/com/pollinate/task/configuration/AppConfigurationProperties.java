@@ -6,6 +6,8 @@ import org.springframework.stereotype.Component;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Duration;
+
 @Getter
 @Setter
 @Component
@@ -16,4 +18,15 @@ public class AppConfigurationProperties {
     private int expiration;
     private String name;
 
+    // build the request principal from token claims instead of loading the user per request
+    private boolean stateless;
+
+    // recently verified tokens kept to skip repeat signature checks, 0 disables
+    private int verifiedCacheSize;
+
+    // users whose token version is held in memory, and for how long before it is re-read
+    // (which bounds how late a revoke-all on another instance is seen here)
+    private int userVersionCacheSize;
+    private Duration userVersionCacheTtl = Duration.ofMinutes(1);
+
 }
@@ -0,0 +1,62 @@
+package com.pollinate.task.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MetricsConfiguration {
+
+    /**
+     * Replaces Boot's default JSON converter with one that times how long each response body
+     * takes to serialize and write, tagged by the body's type.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   MeterRegistry meterRegistry) {
+        return new TimedJacksonConverter(objectMapper, meterRegistry);
+    }
+
+    static class TimedJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+        private final MeterRegistry meterRegistry;
+
+        private final Map<Class<?>, Timer> timers = new ConcurrentHashMap<>();
+
+        TimedJacksonConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+            super(objectMapper);
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            long start = System.nanoTime();
+            try {
+                super.writeInternal(object, type, outputMessage);
+            } finally {
+                timers.computeIfAbsent(object == null ? Void.class : object.getClass(), this::timer)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private Timer timer(Class<?> bodyType) {
+            return Timer.builder("http.json.write")
+                    .description("JSON serialization of response bodies")
+                    .tag("type", bodyType.getSimpleName())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+}
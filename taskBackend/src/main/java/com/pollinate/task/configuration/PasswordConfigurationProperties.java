@@ -0,0 +1,28 @@
+package com.pollinate.task.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "password")
+public class PasswordConfigurationProperties {
+
+    // BCrypt log rounds; stored hashes with a lower cost are upgraded on the next login
+    private int strength = 10;
+
+    // threads dedicated to hashing and checking passwords
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+
+    // hash requests allowed to wait for a thread before callers get a 503
+    private int queueCapacity = 64;
+
+    // value of the Retry-After header sent while the pool is saturated
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
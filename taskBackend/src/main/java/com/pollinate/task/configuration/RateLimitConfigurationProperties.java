@@ -0,0 +1,39 @@
+package com.pollinate.task.configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitConfigurationProperties {
+
+    private boolean enabled = true;
+
+    // authenticated requests, one bucket per JWT subject
+    private Limit user = new Limit(20, 40);
+
+    // unauthenticated requests (login, register), one bucket per client address
+    private Limit ip = new Limit(2, 10);
+
+    // buckets held per kind; beyond it the least recently used are dropped (and start full)
+    private long maxKeys = 100_000;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        // sustained rate the bucket refills at
+        private double requestsPerSecond;
+
+        // requests allowed back to back from a full bucket
+        private int burst;
+    }
+}
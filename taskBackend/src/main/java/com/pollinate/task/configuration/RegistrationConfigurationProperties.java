@@ -0,0 +1,23 @@
+package com.pollinate.task.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "registration")
+public class RegistrationConfigurationProperties {
+
+    // keep taken usernames in memory so duplicates skip hashing and the insert
+    private boolean knownUsernames = true;
+
+    // load every existing username in the background at startup; otherwise the set only
+    // learns names registered (or refused by the constraint) on this instance
+    private boolean warmOnStartup = true;
+
+    // rows fetched per round trip while warming
+    private int fetchSize = 1000;
+}
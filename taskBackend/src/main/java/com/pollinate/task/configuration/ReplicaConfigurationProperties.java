@@ -0,0 +1,37 @@
+package com.pollinate.task.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * Read replica for @Transactional(readOnly = true) work. Pool settings go under
+ * replica.hikari.*, the same keys as spring.datasource.hikari.*.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "replica")
+public class ReplicaConfigurationProperties {
+
+    // off: everything runs on spring.datasource as before
+    private boolean enabled = false;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private String driverClassName;
+
+    // reads by a user who wrote within this window go to the primary; 0 disables
+    private Duration readYourWrites = Duration.ofSeconds(5);
+
+    // users tracked for read-your-writes at once; the oldest are dropped beyond this
+    private long maxRecentWriters = 100_000;
+}
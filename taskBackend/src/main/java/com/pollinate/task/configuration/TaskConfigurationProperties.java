@@ -0,0 +1,118 @@
+package com.pollinate.task.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "tasks")
+public class TaskConfigurationProperties {
+
+    private Page page = new Page();
+
+    private Cache cache = new Cache();
+
+    private Export export = new Export();
+
+    private Stream stream = new Stream();
+
+    private Search search = new Search();
+
+    private Due due = new Due();
+
+    private Concurrency concurrency = new Concurrency();
+
+    @Getter
+    @Setter
+    public static class Page {
+
+        // page size used when the client does not send a limit
+        private int defaultSize = 50;
+
+        // upper bound for any client supplied limit
+        private int maxSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Due {
+
+        // /tasks/due without a before date covers today and this many days after it
+        private int defaultDays = 7;
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+
+        // set to false to serve every read straight from the database
+        private boolean enabled = true;
+
+        // number of owners whose task lists are kept
+        private long maxOwners = 10_000;
+
+        // distinct pages/filters kept per owner before that owner's entry is reset
+        private int maxQueriesPerOwner = 32;
+
+        private Duration ttl = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Concurrency {
+
+        // answer PUT and DELETE /tasks/{id} without If-Match with 428 instead of writing unconditionally
+        private boolean requireIfMatch = false;
+    }
+
+    @Getter
+    @Setter
+    public static class Export {
+
+        // rows the JDBC driver fetches per round trip, and rows written between flushes
+        private int fetchSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Stream {
+
+        // events queued per subscriber before it is treated as stuck and disconnected
+        private int bufferSize = 64;
+
+        // recent events kept per owner for Last-Event-ID resume
+        private int replaySize = 256;
+
+        // how long an owner's replay log outlives its last event when nobody is subscribed
+        private Duration replayTtl = Duration.ofMinutes(5);
+
+        private Duration heartbeat = Duration.ofSeconds(15);
+
+        // clients reconnect (with Last-Event-ID) when a stream times out
+        private Duration timeout = Duration.ofMinutes(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Search {
+
+        // index every owner in the background at startup; otherwise owners are indexed on first search
+        private boolean warmOnStartup = true;
+
+        // rows fetched per round trip while warming
+        private int fetchSize = 1000;
+
+        // per-task bounds: words past this count are not indexed, longer words are cut
+        private int maxTokensPerTask = 16;
+
+        private int maxTokenLength = 32;
+
+        private int maxQueryTokens = 8;
+    }
+}
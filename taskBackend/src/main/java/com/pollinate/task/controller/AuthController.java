@@ -1,15 +1,18 @@
 package com.pollinate.task.controller;
 
 import com.pollinate.task.configuration.AppConfigurationProperties;
+import com.pollinate.task.exception.ServerBusyException;
+import com.pollinate.task.exception.UsernameTakenException;
 import com.pollinate.task.model.AuthRequest;
 import com.pollinate.task.model.AuthResponse;
 import com.pollinate.task.security.JwtUtil;
+import com.pollinate.task.security.PasswordHashingExecutor;
 import com.pollinate.task.service.AuthService;
-import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.*;
@@ -19,6 +22,9 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @Slf4j
 @RestController
 public class AuthController {
@@ -38,36 +44,86 @@ public class AuthController {
     @Autowired
     private AppConfigurationProperties properties;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashing;
+
+    /**
+     * One insert per registration, no existence query: a name already known to be taken is
+     * refused from memory, anything else is hashed and inserted and a unique-constraint
+     * failure comes back as 409.
+     */
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> registerUser(@Valid @RequestBody AuthRequest user) {
-        System.out.println("register user");
-        if (authService.existsByUsername(user.getUsername())) {
-            String errorMessage = String.format("Error: Username %s is already taken!", user.getUsername());
-            log.error(errorMessage);
-            return ResponseEntity.status(409).body(AuthResponse.builder().response(errorMessage).build());
+    public CompletableFuture<ResponseEntity<AuthResponse>> registerUser(@Valid @RequestBody AuthRequest user) {
+        log.debug("Registering user {}", user.getUsername());
+        if (authService.isKnownUsername(user.getUsername())) {
+            return CompletableFuture.completedFuture(usernameTaken(new UsernameTakenException(user.getUsername())));
         }
-        authService.saveUser(user);
-        return ResponseEntity.status(201).body(AuthResponse.builder().response("User registered successfully!").build());
+        // hashing runs on the password pool, freeing this request thread
+        return passwordHashing.submit(PasswordHashingExecutor.Operation.REGISTER, () -> authService.saveUser(user))
+                .handle((saved, error) -> {
+                    if (error != null) {
+                        Throwable cause = unwrap(error);
+                        if (cause instanceof UsernameTakenException taken) {
+                            return usernameTaken(taken);
+                        }
+                        log.error("Error registering user", cause);
+                        return ResponseEntity.status(500).body(AuthResponse.builder().response("Internal error: " + cause.getMessage()).build());
+                    }
+                    return ResponseEntity.status(201).body(AuthResponse.builder().response("User registered successfully!").build());
+                });
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest req, HttpServletResponse response) {
-        try {
-            UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(req.getUsername(), req.getPassword());
-            Authentication authentication = authenticationManager.authenticate(token);
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String jwt = jwtUtils.generateToken(userDetails.getUsername());
-
-            ResponseCookie cookie = setCookie(jwt, properties.getExpiration());
-            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
-            return ResponseEntity.ok(AuthResponse.builder().response("Successfully authenticated user").build());
-        } catch (AuthenticationException e) {
-            log.error("Authentication failed", e);
-            return ResponseEntity.status(401).body(AuthResponse.builder().response("Authentication failed: " + e.getMessage()).build());
-        } catch (Exception e) {
-            log.error("Error authenticating user", e);
-            return ResponseEntity.status(500).body(AuthResponse.builder().response("Internal error: " + e.getMessage()).build());
-        }
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody AuthRequest req) {
+        UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(req.getUsername(), req.getPassword());
+        // BCrypt check (and any cost upgrade re-hash) runs on the password pool
+        return passwordHashing.submit(PasswordHashingExecutor.Operation.LOGIN, () -> authenticationManager.authenticate(token))
+                .handle((authentication, error) -> {
+                    if (error == null) {
+                        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+                        String jwt = jwtUtils.generateToken(userDetails.getUsername(), userDetails.getAuthorities());
+                        ResponseCookie cookie = setCookie(jwt, properties.getExpiration());
+                        return ResponseEntity.ok()
+                                .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                                .body(AuthResponse.builder().response("Successfully authenticated user").build());
+                    }
+                    Throwable cause = unwrap(error);
+                    if (cause instanceof AuthenticationException) {
+                        // expected for bad credentials; no stack trace on this path
+                        log.info("Authentication failed for user {}: {}", req.getUsername(), cause.getMessage());
+                        return ResponseEntity.status(401).body(AuthResponse.builder().response("Authentication failed: " + cause.getMessage()).build());
+                    }
+                    log.error("Error authenticating user", cause);
+                    return ResponseEntity.status(500).body(AuthResponse.builder().response("Internal error: " + cause.getMessage()).build());
+                });
+    }
+
+    /**
+     * "Log out everywhere": every token issued to the caller so far, on any device, is refused
+     * from the next request on. /logout only revokes the token it is sent with.
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutAll(Authentication authentication) {
+        authService.revokeAllSessions(authentication.getName());
+        return ResponseEntity.noContent()
+                .header(HttpHeaders.SET_COOKIE, setCookie("", 0).toString())
+                .build();
+    }
+
+    @ExceptionHandler(ServerBusyException.class)
+    public ResponseEntity<AuthResponse> serverBusy(ServerBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                .body(AuthResponse.builder().response(e.getMessage()).build());
+    }
+
+    private static ResponseEntity<AuthResponse> usernameTaken(UsernameTakenException e) {
+        log.info(e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(AuthResponse.builder().response(e.getMessage()).build());
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
     }
 
     private ResponseCookie setCookie(String jwt, int expiresIn) {
@@ -1,17 +1,38 @@
 package com.pollinate.task.controller;
 
+import com.pollinate.task.exception.TaskVersionConflictException;
+import com.pollinate.task.model.BatchTaskRequest;
+import com.pollinate.task.model.BatchTaskResponse;
+import com.pollinate.task.model.BatchTaskResult;
+import com.pollinate.task.model.TaskCursor;
+import com.pollinate.task.model.TaskExportFormat;
+import com.pollinate.task.model.TaskPage;
+import com.pollinate.task.model.TaskPageQuery;
 import com.pollinate.task.model.TaskRequest;
 import com.pollinate.task.model.TaskResponse;
+import com.pollinate.task.model.TaskView;
+import com.pollinate.task.service.TaskEventBroadcaster;
+import com.pollinate.task.service.TaskExporter;
 import com.pollinate.task.service.TaskService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Slf4j
@@ -22,35 +43,189 @@ public class TaskController {
     @Autowired
     TaskService service;
 
+    @Autowired
+    TaskExporter exporter;
+
+    @Autowired
+    TaskEventBroadcaster broadcaster;
+
+    private static final String PREFER_MINIMAL = "return=minimal";
+
     @PostMapping
-    public ResponseEntity<TaskResponse> createTask(@Valid @RequestBody TaskRequest task) {
-        List<TaskRequest> tasks = service.createTask(task);
-        TaskResponse response = TaskResponse.builder().tasks(tasks).build();
-        return ResponseEntity.status(201).body(response);
+    public ResponseEntity<TaskResponse> createTask(
+            @Valid @RequestBody TaskRequest task,
+            @RequestParam(name = "includeAll", defaultValue = "false") boolean includeAll,
+            @RequestHeader(name = "Prefer", required = false) String prefer) {
+        TaskView created = service.createTask(task);
+        return mutationResponse(HttpStatus.CREATED, created, includeAll, prefer);
     }
 
+    /**
+     * Sends a strong ETag from the owner's task-list version. A matching If-None-Match is
+     * answered with 304 before any query runs or anything is serialized.
+     */
     @GetMapping
-    public ResponseEntity<TaskResponse> getTasks() {
-        List<TaskRequest> tasks = service.getTasks();
-        TaskResponse response = TaskResponse.builder().tasks(tasks).build();
-        return ResponseEntity.status(200).body(response);
+    public ResponseEntity<TaskResponse> getTasks(
+            WebRequest webRequest,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", defaultValue = "0") int limit,
+            @RequestParam(name = "dueBefore", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueBefore,
+            @RequestParam(name = "dueAfter", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueAfter,
+            @RequestParam(name = "title", required = false) String titlePrefix) {
+        String etag = service.getTaskListETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        TaskPageQuery query = TaskPageQuery.builder()
+                .after(cursor == null ? null : TaskCursor.decode(cursor))
+                .limit(limit)
+                .dueBefore(dueBefore)
+                .dueAfter(dueAfter)
+                .titlePrefix(titlePrefix)
+                .build();
+        TaskPage page = service.getTaskPage(query);
+        TaskResponse response = TaskResponse.builder().tasks(page.getTasks()).nextCursor(page.getNextCursor()).build();
+        // cacheable by the browser only, and always revalidated against the ETag
+        return ResponseEntity.status(200)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(response);
+    }
+
+    /**
+     * Tasks due from today up to (excluding) {@code before}, soonest first and paged by
+     * cursor like the main list. Without {@code before} the next week is returned.
+     */
+    @GetMapping("/due")
+    public ResponseEntity<TaskResponse> getDueTasks(
+            @RequestParam(name = "before", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", defaultValue = "0") int limit) {
+        TaskPage page = service.getDueTasks(before, cursor == null ? null : TaskCursor.decode(cursor), limit);
+        return ResponseEntity.ok(TaskResponse.builder().tasks(page.getTasks()).nextCursor(page.getNextCursor()).build());
+    }
+
+    /**
+     * Tasks due before today, longest overdue first.
+     */
+    @GetMapping("/overdue")
+    public ResponseEntity<TaskResponse> getOverdueTasks(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", defaultValue = "0") int limit) {
+        TaskPage page = service.getOverdueTasks(cursor == null ? null : TaskCursor.decode(cursor), limit);
+        return ResponseEntity.ok(TaskResponse.builder().tasks(page.getTasks()).nextCursor(page.getNextCursor()).build());
+    }
+
+    /**
+     * Tasks whose titles contain every word of {@code q} (whole words or prefixes), best
+     * matches first.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<TaskResponse> searchTasks(
+            @RequestParam(name = "q") String query,
+            @RequestParam(name = "limit", defaultValue = "0") int limit) {
+        List<TaskView> tasks = service.searchTasks(query, limit);
+        return ResponseEntity.ok(TaskResponse.builder().tasks(tasks).build());
+    }
+
+    /**
+     * Streams every task of the caller as NDJSON (default) or CSV. Rows go from the database
+     * cursor to the response without building a list, so the size of the export does not
+     * affect memory.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(name = "format", defaultValue = "ndjson") String format) {
+        TaskExportFormat exportFormat = TaskExportFormat.fromParameter(format);
+        // the body is written on an async thread, so resolve the owner here
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String owner = auth == null ? null : auth.getName();
+        StreamingResponseBody body = out -> exporter.export(owner, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("tasks." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    /**
+     * Server-sent events for the caller's committed task changes, so clients can apply
+     * them instead of refetching the list. Reconnecting clients send Last-Event-ID and get
+     * what they missed, or a {@code reset} event when it is no longer available.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTasks(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return broadcaster.subscribe(auth == null ? null : auth.getName(), lastEventId);
     }
 
+    /**
+     * With If-Match (the task's ETag from an earlier response) the update only applies to
+     * that version of the task; otherwise it is answered with 412.
+     */
     @PutMapping("/{id}")
     public ResponseEntity<TaskResponse> updateTask(
             @PathVariable("id") Long id,
-            @Valid @RequestBody TaskRequest task) {
-        List<TaskRequest> tasks = service.updateTasks(task, id);
-        TaskResponse response = TaskResponse.builder().tasks(tasks).build();
-        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+            @Valid @RequestBody TaskRequest task,
+            @RequestParam(name = "includeAll", defaultValue = "false") boolean includeAll,
+            @RequestHeader(name = "Prefer", required = false) String prefer,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskView updated = service.updateTasks(task, id, ifMatch);
+        return mutationResponse(HttpStatus.ACCEPTED, updated, includeAll, prefer);
     }
 
 
     @DeleteMapping("/{id}")
     public ResponseEntity<TaskResponse> deleteTask(
-            @PathVariable("id") Long id) {
-        List<TaskRequest> tasks = service.deleteTask(id);
+            @PathVariable("id") Long id,
+            @RequestParam(name = "includeAll", defaultValue = "false") boolean includeAll,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        service.deleteTask(id, ifMatch);
+        if (includeAll) {
+            return ResponseEntity.ok(TaskResponse.builder().tasks(service.getTasks()).build());
+        }
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchTaskResponse> batch(@Valid @RequestBody BatchTaskRequest request) {
+        List<BatchTaskResult> results = service.applyBatch(request.getOperations());
+        return ResponseEntity.ok(BatchTaskResponse.builder().results(results).build());
+    }
+
+    /**
+     * The stale If-Match case: the body and ETag carry the stored version to merge against.
+     */
+    @ExceptionHandler(TaskVersionConflictException.class)
+    public ResponseEntity<TaskResponse> versionConflict(TaskVersionConflictException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .eTag(e.getCurrent().etag())
+                .body(TaskResponse.builder().tasks(List.of(e.getCurrent())).build());
+    }
+
+    /**
+     * Another writer committed between our read and our versioned write; the client refetches.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> concurrentModification(OptimisticLockingFailureException e) {
+        log.debug("Concurrent task modification: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+    }
+
+    /**
+     * Writes only echo the affected task by default. {@code includeAll=true} restores the
+     * legacy full owner list and {@code Prefer: return=minimal} drops the body entirely. Unless
+     * the full list is returned, the ETag header is the task's, for If-Match on the next write.
+     */
+    private ResponseEntity<TaskResponse> mutationResponse(HttpStatus status, TaskView task, boolean includeAll, String prefer) {
+        if (includeAll) {
+            return ResponseEntity.status(status).body(TaskResponse.builder().tasks(service.getTasks()).build());
+        }
+        if (prefer != null && prefer.contains(PREFER_MINIMAL)) {
+            return ResponseEntity.noContent().eTag(task.etag()).build();
+        }
+        return ResponseEntity.status(status).eTag(task.etag()).body(TaskResponse.builder().tasks(List.of(task)).build());
+    }
+
 }
\ No newline at end of file
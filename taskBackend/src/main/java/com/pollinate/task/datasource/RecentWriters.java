@@ -0,0 +1,86 @@
+package com.pollinate.task.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pollinate.task.configuration.ReplicaConfigurationProperties;
+import com.pollinate.task.model.TaskChangedEvent;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.Supplier;
+
+/**
+ * Users who wrote within the last replica.read-your-writes. Their read-only transactions
+ * are routed to the primary so they never read a replica that has not caught up with
+ * their own change yet. Does nothing when the replica is disabled.
+ * <p>
+ * Reads are attributed to the authenticated user, or to the name passed to
+ * {@link #readAs} for lookups that run before anyone is authenticated (login).
+ */
+@Component
+public class RecentWriters {
+
+    private static final ThreadLocal<String> SUBJECT = new ThreadLocal<>();
+
+    private static final Object WROTE = Boolean.TRUE;
+
+    // null when routing is off or the window is zero
+    private final Cache<String, Object> writers;
+
+    public RecentWriters(ReplicaConfigurationProperties properties) {
+        boolean tracking = properties.isEnabled() && properties.getReadYourWrites().isPositive();
+        this.writers = !tracking ? null : Caffeine.newBuilder()
+                .expireAfterWrite(properties.getReadYourWrites())
+                .maximumSize(properties.getMaxRecentWriters())
+                .build();
+    }
+
+    public void recordWrite(String user) {
+        if (writers != null && user != null) {
+            writers.put(user, WROTE);
+        }
+    }
+
+    /**
+     * Whether the current reader wrote recently. Called for every read-only connection
+     * checkout, so it is a single hash lookup.
+     */
+    public boolean currentReaderWroteRecently() {
+        if (writers == null) {
+            return false;
+        }
+        String user = SUBJECT.get();
+        if (user == null) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            user = auth == null ? null : auth.getName();
+        }
+        return user != null && writers.getIfPresent(user) != null;
+    }
+
+    /**
+     * Runs {@code read} on behalf of {@code user}. Only effective when the read is the
+     * first statement of its transaction, since that is when the connection is chosen.
+     */
+    public <T> T readAs(String user, Supplier<T> read) {
+        String previous = SUBJECT.get();
+        SUBJECT.set(user);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                SUBJECT.remove();
+            } else {
+                SUBJECT.set(previous);
+            }
+        }
+    }
+
+    @Order(TaskChangedEvent.INVALIDATE_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        recordWrite(event.getOwner());
+    }
+}
@@ -0,0 +1,36 @@
+package com.pollinate.task.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections of read-only transactions to the replica and everything else to the
+ * primary. Must sit behind a LazyConnectionDataSourceProxy: the transaction manager asks
+ * for a connection before the read-only flag is bound to the thread, and the proxy defers
+ * the real checkout (and so this routing decision) to the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final RecentWriters recentWriters;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, RecentWriters recentWriters) {
+        this.recentWriters = recentWriters;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || recentWriters.currentReaderWroteRecently()) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+}
@@ -0,0 +1,12 @@
+package com.pollinate.task.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_REQUIRED)
+public class IfMatchRequiredException extends RuntimeException {
+
+    public IfMatchRequiredException() {
+        super("If-Match with the task's ETag is required");
+    }
+}
@@ -0,0 +1,16 @@
+package com.pollinate.task.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class ServerBusyException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServerBusyException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,19 @@
+package com.pollinate.task.exception;
+
+import com.pollinate.task.model.TaskView;
+import lombok.Getter;
+
+/**
+ * If-Match named a version of the task other than the stored one. Carries the stored
+ * version so the client can merge and retry against it.
+ */
+@Getter
+public class TaskVersionConflictException extends RuntimeException {
+
+    private final TaskView current;
+
+    public TaskVersionConflictException(TaskView current) {
+        super("Task " + current.id() + " has been modified, current version is " + current.version());
+        this.current = current;
+    }
+}
@@ -0,0 +1,12 @@
+package com.pollinate.task.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnsupportedExportFormatException extends IllegalArgumentException {
+
+    public UnsupportedExportFormatException(String format) {
+        super("Unsupported export format: " + format);
+    }
+}
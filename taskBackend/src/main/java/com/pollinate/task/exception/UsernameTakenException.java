@@ -0,0 +1,12 @@
+package com.pollinate.task.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class UsernameTakenException extends RuntimeException {
+
+    public UsernameTakenException(String username) {
+        super(String.format("Error: Username %s is already taken!", username));
+    }
+}
@@ -0,0 +1,38 @@
+package com.pollinate.task.logging;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets one log event through per interval and counts the rest, for messages that can fire
+ * on every request (rejected tokens, a saturated pool). Lock-free, so callers that lose the
+ * race pay only an increment.
+ */
+public class LogSampler {
+
+    private final long intervalNanos;
+
+    private final AtomicLong nextAllowed;
+
+    private final LongAdder suppressed = new LongAdder();
+
+    public LogSampler(Duration interval) {
+        this.intervalNanos = interval.toNanos();
+        this.nextAllowed = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Returns the number of events suppressed since the last one let through when this event
+     * should be logged, or -1 when it should be dropped.
+     */
+    public long sample() {
+        long now = System.nanoTime();
+        long next = nextAllowed.get();
+        if (now - next >= 0 && nextAllowed.compareAndSet(next, now + intervalNanos)) {
+            return suppressed.sumThenReset();
+        }
+        suppressed.increment();
+        return -1;
+    }
+}
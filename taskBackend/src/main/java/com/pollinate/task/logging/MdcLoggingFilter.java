@@ -0,0 +1,56 @@
+package com.pollinate.task.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Puts the request id and the authenticated user into the MDC for every log line written
+ * while the request is handled. Runs after AuthTokenFilter so the user is known. A caller
+ * supplied X-Request-Id is reused when it looks sane, otherwise one is generated; either way
+ * it is echoed back on the response.
+ */
+@Component
+public class MdcLoggingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String MDC_REQUEST_ID = "requestId";
+    public static final String MDC_USER = "user";
+
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            // ThreadLocalRandom rather than UUID.randomUUID, which draws from a shared SecureRandom
+            requestId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        MDC.put(MDC_REQUEST_ID, requestId);
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null) {
+            MDC.put(MDC_USER, auth.getName());
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_REQUEST_ID);
+            MDC.remove(MDC_USER);
+        }
+    }
+}
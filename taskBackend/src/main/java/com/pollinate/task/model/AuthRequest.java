@@ -1,7 +1,9 @@
 package com.pollinate.task.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 
 @Getter
@@ -17,10 +19,18 @@ public class AuthRequest {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // users.username is varchar(255); longer names would fail the insert, not validation
     @NotBlank
+    @Size(max = 255)
     @Column(unique = true)
     private String username;
 
     @NotBlank
+    @Size(max = 255)
     private String password;
+
+    // bumped to revoke every token issued to the user so far, see UserVersionRegistry
+    @JsonIgnore
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
 }
@@ -0,0 +1,34 @@
+package com.pollinate.task.model;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTaskOperation {
+
+    public enum Op { CREATE, UPDATE, DELETE }
+
+    @NotNull
+    private Op op;
+
+    // required for UPDATE and DELETE
+    private Long id;
+
+    // optional for UPDATE and DELETE: the item fails with 412 unless the task is at this version
+    private Long version;
+
+    // required for CREATE and UPDATE
+    private String title;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueDate;
+}
@@ -0,0 +1,22 @@
+package com.pollinate.task.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTaskRequest {
+
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@Valid BatchTaskOperation> operations;
+}
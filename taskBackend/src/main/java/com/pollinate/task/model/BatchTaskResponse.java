@@ -0,0 +1,17 @@
+package com.pollinate.task.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTaskResponse {
+
+    private List<BatchTaskResult> results;
+}
@@ -0,0 +1,25 @@
+package com.pollinate.task.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTaskResult {
+
+    // position of the operation in the request
+    private int index;
+
+    private BatchTaskOperation.Op op;
+
+    // HTTP-style status of this item: 201, 200, 204, 400, 404 or 412
+    private int status;
+
+    private TaskView task;
+
+    private String error;
+}
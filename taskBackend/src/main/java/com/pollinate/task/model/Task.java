@@ -0,0 +1,36 @@
+package com.pollinate.task.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Entity
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "tasks")
+public class Task {
+
+    // pooled sequence ids let Hibernate assign ids without an insert, so inserts can be JDBC batched
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    private LocalDate dueDate;
+
+    @Column(nullable = false)
+    private String owner;
+
+    // bumped on every update; updates and deletes only match the row at the version read
+    @Version
+    private Long version;
+}
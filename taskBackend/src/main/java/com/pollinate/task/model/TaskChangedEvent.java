@@ -0,0 +1,27 @@
+package com.pollinate.task.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by TaskService for every task write. Listeners that keep per-owner state
+ * in memory use the after-commit phase so they never observe uncommitted data.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    // after-commit listener order: cached reads are dropped and the writer is routed to the
+    // primary before the owner's ETag moves on, so a current tag never fronts stale data
+    public static final int INVALIDATE_ORDER = 0;
+
+    public static final int VERSION_ORDER = 100;
+
+    private final String owner;
+
+    private final Type type;
+
+    private final TaskView task;
+}
@@ -0,0 +1,50 @@
+package com.pollinate.task.model;
+
+import com.pollinate.task.exception.InvalidCursorException;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the (dueDate, id) ordering of a user's tasks.
+ * Sent to clients as an opaque url-safe string.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskCursor {
+
+    private LocalDate dueDate;
+
+    private Long id;
+
+    public static TaskCursor of(TaskView task) {
+        return new TaskCursor(task.dueDate(), task.id());
+    }
+
+    public String encode() {
+        String raw = (dueDate == null ? "" : dueDate.toString()) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            if (sep < 0) {
+                throw new InvalidCursorException(value);
+            }
+            String date = raw.substring(0, sep);
+            return new TaskCursor(date.isEmpty() ? null : LocalDate.parse(date), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(value);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.pollinate.task.model;
+
+import com.pollinate.task.exception.UnsupportedExportFormatException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum TaskExportFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+
+    private final String extension;
+
+    public static TaskExportFormat fromParameter(String value) {
+        for (TaskExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new UnsupportedExportFormatException(value);
+    }
+}
@@ -0,0 +1,20 @@
+package com.pollinate.task.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPage {
+
+    private List<TaskView> tasks;
+
+    // null when this is the last page
+    private String nextCursor;
+}
@@ -0,0 +1,28 @@
+package com.pollinate.task.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Builder(toBuilder = true)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPageQuery {
+
+    // exclusive upper bound on dueDate
+    private LocalDate dueBefore;
+
+    // exclusive lower bound on dueDate
+    private LocalDate dueAfter;
+
+    private String titlePrefix;
+
+    // last row of the previous page, null for the first page
+    private TaskCursor after;
+
+    private int limit;
+}
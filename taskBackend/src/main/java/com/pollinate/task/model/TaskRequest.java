@@ -1,6 +1,5 @@
 package com.pollinate.task.model;
 
-import jakarta.persistence.*;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
@@ -11,25 +10,19 @@ import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDate;
 
-@Entity
+/**
+ * Body of POST and PUT /tasks. Ids and owners are never taken from the client.
+ */
 @Builder
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "tasks")
 public class TaskRequest {
 
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
     @NotBlank
     private String title;
 
     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
     @Future
     private LocalDate dueDate;
-
-    @Column(nullable = false)
-    private String owner;
 }
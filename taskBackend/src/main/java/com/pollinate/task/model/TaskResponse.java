@@ -13,5 +13,7 @@ import java.util.List;
 @AllArgsConstructor
 public class TaskResponse {
 
-    List<TaskRequest> tasks;
+    List<TaskView> tasks;
+
+    String nextCursor;
 }
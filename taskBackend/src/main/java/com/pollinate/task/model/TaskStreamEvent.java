@@ -0,0 +1,21 @@
+package com.pollinate.task.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data of a /tasks/stream event. The SSE event name is the lower-cased type and the
+ * event id is what a client sends back as Last-Event-ID.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStreamEvent {
+
+    private TaskChangedEvent.Type type;
+
+    private TaskView task;
+}
@@ -0,0 +1,7 @@
+package com.pollinate.task.model;
+
+/**
+ * The columns the title search index needs, read as a projection rather than entities.
+ */
+public record TaskTitle(Long id, String owner, String title) {
+}
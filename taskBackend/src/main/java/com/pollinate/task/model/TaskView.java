@@ -0,0 +1,41 @@
+package com.pollinate.task.model;
+
+import lombok.Builder;
+
+import java.time.LocalDate;
+
+/**
+ * A task as returned to clients, cached and pushed to streams. Reads select it straight
+ * from the tasks table with a constructor projection, so no entity is hydrated or tracked
+ * by the persistence context just to be serialized.
+ */
+@Builder
+public record TaskView(Long id, String title, LocalDate dueDate, Long version) {
+
+    public static TaskView of(Task task) {
+        return new TaskView(task.getId(), task.getTitle(), task.getDueDate(), task.getVersion());
+    }
+
+    /**
+     * Strong ETag of this version of the task. The id is part of the tag so a tag sent for
+     * one task never matches another at the same version.
+     */
+    public String etag() {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * If-Match evaluation with strong comparison: {@code *} or any listed tag equal to
+     * {@link #etag()}. Weak tags never match.
+     */
+    public boolean matches(String ifMatch) {
+        String etag = etag();
+        for (String tag : ifMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
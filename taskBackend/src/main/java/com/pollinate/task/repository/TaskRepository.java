@@ -1,16 +1,34 @@
 package com.pollinate.task.repository;
 
-import com.pollinate.task.model.TaskRequest;
+import com.pollinate.task.model.Task;
+import com.pollinate.task.model.TaskTitle;
+import com.pollinate.task.model.TaskView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<TaskRequest, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
 
-    List<TaskRequest> findByOwner(String owner);
+    // read paths select TaskView projections; entities are only loaded to be written
 
-    Optional<TaskRequest> findByIdAndOwner(Long id, String owner);
+    @Query("select new com.pollinate.task.model.TaskView(t.id, t.title, t.dueDate, t.version) from Task t where t.owner = :owner")
+    List<TaskView> findViewsByOwner(@Param("owner") String owner);
+
+    @Query("select new com.pollinate.task.model.TaskView(t.id, t.title, t.dueDate, t.version) from Task t"
+            + " where t.owner = :owner and t.id in :ids")
+    List<TaskView> findViewsByOwnerAndIdIn(@Param("owner") String owner, @Param("ids") Collection<Long> ids);
+
+    Optional<Task> findByIdAndOwner(Long id, String owner);
+
+    List<Task> findByOwnerAndIdIn(String owner, Collection<Long> ids);
+
+    // a range of the (owner, due_date, id) index, and a projection so nothing enters the persistence context
+    @Query("select new com.pollinate.task.model.TaskTitle(t.id, t.owner, t.title) from Task t where t.owner = :owner")
+    List<TaskTitle> findTitlesByOwner(@Param("owner") String owner);
 }
@@ -0,0 +1,29 @@
+package com.pollinate.task.repository;
+
+import com.pollinate.task.model.TaskPageQuery;
+import com.pollinate.task.model.TaskTitle;
+import com.pollinate.task.model.TaskView;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * Keyset page of an owner's tasks ordered by (dueDate nulls last, id).
+     * Returns at most {@code query.getLimit()} rows and never issues a count query.
+     */
+    List<TaskView> findPage(String owner, TaskPageQuery query);
+
+    /**
+     * All of an owner's tasks in page order, read through a forward-only cursor that fetches
+     * {@code fetchSize} rows at a time. Must be consumed inside a transaction and closed.
+     */
+    Stream<TaskView> streamByOwner(String owner, int fetchSize);
+
+    /**
+     * Id, owner and title of every task, grouped by owner, through a forward-only cursor.
+     * Must be consumed inside a transaction and closed.
+     */
+    Stream<TaskTitle> streamAllTitles(int fetchSize);
+}
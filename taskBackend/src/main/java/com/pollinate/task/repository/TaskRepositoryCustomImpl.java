@@ -0,0 +1,86 @@
+package com.pollinate.task.repository;
+
+import com.pollinate.task.model.TaskCursor;
+import com.pollinate.task.model.TaskPageQuery;
+import com.pollinate.task.model.TaskTitle;
+import com.pollinate.task.model.TaskView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private static final String SELECT_VIEW = "select new com.pollinate.task.model.TaskView(t.id, t.title, t.dueDate, t.version) from Task t";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TaskView> findPage(String owner, TaskPageQuery query) {
+        // Only the predicates that are actually requested are added so the planner can
+        // range-scan the (owner, due_date, id) index instead of evaluating "? is null" guards.
+        StringBuilder jpql = new StringBuilder(SELECT_VIEW).append(" where t.owner = :owner");
+        Map<String, Object> params = new HashMap<>();
+        params.put("owner", owner);
+
+        if (query.getDueAfter() != null) {
+            jpql.append(" and t.dueDate > :dueAfter");
+            params.put("dueAfter", query.getDueAfter());
+        }
+        if (query.getDueBefore() != null) {
+            jpql.append(" and t.dueDate < :dueBefore");
+            params.put("dueBefore", query.getDueBefore());
+        }
+        if (query.getTitlePrefix() != null && !query.getTitlePrefix().isEmpty()) {
+            jpql.append(" and t.title like :titlePrefix escape '!'");
+            params.put("titlePrefix", escapeLike(query.getTitlePrefix()) + "%");
+        }
+
+        TaskCursor after = query.getAfter();
+        if (after != null) {
+            if (after.getDueDate() == null) {
+                // already inside the trailing block of undated tasks
+                jpql.append(" and t.dueDate is null and t.id > :afterId");
+            } else {
+                jpql.append(" and (t.dueDate > :afterDue or (t.dueDate = :afterDue and t.id > :afterId) or t.dueDate is null)");
+                params.put("afterDue", after.getDueDate());
+            }
+            params.put("afterId", after.getId());
+        }
+
+        jpql.append(" order by t.dueDate asc nulls last, t.id asc");
+
+        TypedQuery<TaskView> typed = entityManager.createQuery(jpql.toString(), TaskView.class);
+        params.forEach(typed::setParameter);
+        return typed.setMaxResults(query.getLimit()).getResultList();
+    }
+
+    @Override
+    public Stream<TaskView> streamByOwner(String owner, int fetchSize) {
+        return entityManager.createQuery(
+                        SELECT_VIEW + " where t.owner = :owner order by t.dueDate asc nulls last, t.id asc",
+                        TaskView.class)
+                .setParameter("owner", owner)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<TaskTitle> streamAllTitles(int fetchSize) {
+        return entityManager.createQuery(
+                        "select new com.pollinate.task.model.TaskTitle(t.id, t.owner, t.title) from Task t order by t.owner",
+                        TaskTitle.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
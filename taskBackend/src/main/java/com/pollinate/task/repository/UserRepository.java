@@ -2,12 +2,29 @@ package com.pollinate.task.repository;
 
 import com.pollinate.task.model.AuthRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
-public interface UserRepository extends JpaRepository<AuthRequest, Long> {
+public interface UserRepository extends JpaRepository<AuthRequest, Long>, UserRepositoryCustom {
 
     AuthRequest findByUsername(String username);
 
     boolean existsByUsername(String username);
+
+    @Query("select u.tokenVersion from AuthRequest u where u.username = :username")
+    Integer findTokenVersionByUsername(@Param("username") String username);
+
+    @Transactional
+    @Modifying
+    @Query("delete from AuthRequest u where u.username = :username")
+    int deleteByUsername(@Param("username") String username);
+
+    @Transactional
+    @Modifying
+    @Query("update AuthRequest u set u.tokenVersion = u.tokenVersion + 1 where u.username = :username")
+    int incrementTokenVersion(@Param("username") String username);
 }
\ No newline at end of file
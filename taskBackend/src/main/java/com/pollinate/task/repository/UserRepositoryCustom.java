@@ -0,0 +1,12 @@
+package com.pollinate.task.repository;
+
+import java.util.stream.Stream;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Every username through a forward-only cursor. Must be consumed inside a transaction
+     * and closed.
+     */
+    Stream<String> streamAllUsernames(int fetchSize);
+}
@@ -1,7 +1,9 @@
 package com.pollinate.task.security;
 
 import com.pollinate.task.configuration.AppConfigurationProperties;
+import com.pollinate.task.logging.LogSampler;
 import com.pollinate.task.service.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -9,6 +11,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.authentication.*;
@@ -16,6 +20,8 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
 
 @Slf4j
 @Component
@@ -30,6 +36,14 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private AppConfigurationProperties properties;
 
+    @Autowired
+    private UserVersionRegistry userVersions;
+
+    @Autowired
+    private TokenDenylist denylist;
+
+    private final LogSampler failureLog = new LogSampler(Duration.ofSeconds(1));
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -37,28 +51,56 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             FilterChain filterChain
     ) throws ServletException, IOException {
 
-        log.info("Resolving jwt token from cookie...");
+        log.trace("Resolving jwt token from cookie");
         try {
             String jwt = resolveJwtFromCookie(request);
 
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            Claims claims = jwt == null ? null : jwtUtils.verify(jwt);
+            if (claims != null) {
+                String username = claims.getSubject();
+                Integer version = claims.get(JwtUtil.CLAIM_VERSION, Integer.class);
+                // tokens issued before versions were stamped count as version 0
+                if (denylist.isRevoked(claims)) {
+                    log.debug("Rejecting revoked token for user {}", username);
+                } else if (userVersions.isCurrent(username, version == null ? 0 : version)) {
+                    UserDetails userDetails = properties.isStateless()
+                            ? principalFromClaims(username, claims)
+                            : userDetailsService.loadUserByUsername(username);
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(
+                                    userDetails,
+                                    null,
+                                    userDetails.getAuthorities()
+                            );
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                } else {
+                    log.debug("Rejecting token for user {} issued for a superseded user version", username);
+                }
             }
         } catch (Exception e) {
-            System.out.println("Cannot set user authentication: " + e);
+            long suppressed = failureLog.sample();
+            if (suppressed >= 0) {
+                log.warn("Cannot set user authentication ({} similar failures suppressed)", suppressed, e);
+            }
         }
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * The token signature already proves the user existed when it was issued and the version
+     * check above covers later deletion or disabling, so no user lookup is needed here.
+     */
+    private UserDetails principalFromClaims(String username, Claims claims) {
+        List<?> roles = claims.get(JwtUtil.CLAIM_ROLES, List.class);
+        List<SimpleGrantedAuthority> authorities = roles == null ? List.of()
+                : roles.stream().map(role -> new SimpleGrantedAuthority(String.valueOf(role))).toList();
+        return User.withUsername(username)
+                .password("")
+                .authorities(authorities)
+                .build();
+    }
+
     private String resolveJwtFromCookie(HttpServletRequest request) {
         if (request.getCookies() == null) return null;
         for (Cookie c : request.getCookies()) {
@@ -1,32 +1,121 @@
 package com.pollinate.task.security;
 
 import com.pollinate.task.configuration.AppConfigurationProperties;
+import com.pollinate.task.logging.LogSampler;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @Component
 public class JwtUtil {
 
+    public static final String CLAIM_VERSION = "ver";
+    public static final String CLAIM_ROLES = "roles";
+
     @Autowired
     private AppConfigurationProperties properties;
 
+    @Autowired
+    private UserVersionRegistry userVersions;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private SecretKey key;
 
+    private JwtParser parser;
+
+    // null when jwt.verified-cache-size is 0
+    private Cache<TokenHash, Claims> verifiedTokens;
+
+    // meters are resolved once here so verify() only pays for the recording itself
+    private Timer cachedTimer;
+    private Timer validTimer;
+    private Timer rejectedTimer;
+    private Counter invalidSignature;
+    private Counter malformed;
+    private Counter expired;
+    private Counter unsupported;
+    private Counter empty;
+    private Counter invalid;
+
+    // a flood of bad tokens logs one line per second, not one per request
+    private final LogSampler rejectionLog = new LogSampler(Duration.ofSeconds(1));
+
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(properties.getSecret().getBytes(StandardCharsets.UTF_8));
+        // the built parser is immutable and thread-safe, so one instance serves every request
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedTokens = properties.getVerifiedCacheSize() > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(properties.getVerifiedCacheSize())
+                        .expireAfter(new ExpireAtTokenExpiry())
+                        .<TokenHash, Claims>build()
+                : null;
+        this.cachedTimer = verifyTimer("cached");
+        this.validTimer = verifyTimer("valid");
+        this.rejectedTimer = verifyTimer("rejected");
+        this.invalidSignature = failureCounter("signature");
+        this.malformed = failureCounter("malformed");
+        this.expired = failureCounter("expired");
+        this.unsupported = failureCounter("unsupported");
+        this.empty = failureCounter("empty");
+        this.invalid = failureCounter("invalid");
+    }
+
+    private Timer verifyTimer(String result) {
+        return Timer.builder("jwt.verify")
+                .description("JWT signature and claims verification")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter failureCounter(String reason) {
+        return Counter.builder("jwt.auth.failures")
+                .description("Rejected JWTs by reason")
+                .tag("reason", reason)
+                .register(meterRegistry);
     }
 
     public String generateToken(String username) {
+        return generateToken(username, Collections.emptyList());
+    }
+
+    public String generateToken(String username, Collection<? extends GrantedAuthority> authorities) {
+        List<String> roles = authorities.stream().map(GrantedAuthority::getAuthority).toList();
         return Jwts.builder()
                 .setSubject(username)
+                // jti, so a single token can be revoked before its expiry
+                .setId(UUID.randomUUID().toString())
+                .claim(CLAIM_VERSION, userVersions.current(username))
+                .claim(CLAIM_ROLES, roles)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + properties.getExpiration()))
                 .signWith(key, SignatureAlgorithm.HS256)
@@ -34,28 +123,98 @@ public class JwtUtil {
     }
 
     public String getUsernameFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key).build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        Claims claims = verify(token);
+        return claims == null ? null : claims.getSubject();
     }
 
     public boolean validateJwtToken(String token) {
+        return verify(token) != null;
+    }
+
+    /**
+     * Parses and verifies the token once, returning its claims or null when it is not
+     * acceptable. Recently verified tokens are served from the cache until their expiry.
+     */
+    public Claims verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        long start = System.nanoTime();
+        TokenHash hash = verifiedTokens == null ? null : TokenHash.of(token);
+        if (hash != null) {
+            Claims cached = verifiedTokens.getIfPresent(hash);
+            if (cached != null) {
+                cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return cached;
+            }
+        }
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (hash != null && claims.getExpiration() != null) {
+                verifiedTokens.put(hash, claims);
+            }
+            validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
         } catch (SecurityException e) {
-            System.out.println("Invalid JWT signature: " + e.getMessage());
+            reject(invalidSignature, "Invalid JWT signature", e);
         } catch (MalformedJwtException e) {
-            System.out.println("Invalid JWT token: " + e.getMessage());
+            reject(malformed, "Invalid JWT token", e);
         } catch (ExpiredJwtException e) {
-            System.out.println("JWT token is expired: " + e.getMessage());
+            reject(expired, "JWT token is expired", e);
         } catch (UnsupportedJwtException e) {
-            System.out.println("JWT token is unsupported: " + e.getMessage());
+            reject(unsupported, "JWT token is unsupported", e);
         } catch (IllegalArgumentException e) {
-            System.out.println("JWT claims string is empty: " + e.getMessage());
+            reject(empty, "JWT claims string is empty", e);
+        } catch (JwtException e) {
+            reject(invalid, "Invalid JWT", e);
+        }
+        rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return null;
+    }
+
+    private void reject(Counter counter, String reason, Exception e) {
+        counter.increment();
+        long suppressed = rejectionLog.sample();
+        if (suppressed >= 0) {
+            log.warn("{}: {} ({} similar rejections suppressed)", reason, e.getMessage(), suppressed);
+        }
+    }
+
+    /**
+     * Expires each cached entry at the token's own exp claim.
+     */
+    private static final class ExpireAtTokenExpiry implements Expiry<TokenHash, Claims> {
+
+        @Override
+        public long expireAfterCreate(TokenHash key, Claims claims, long currentTime) {
+            long millis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenHash key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(TokenHash key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * First 128 bits of the token's SHA-256, so the cache never holds raw tokens.
+     */
+    private record TokenHash(long high, long low) {
+
+        static TokenHash of(String token) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+                ByteBuffer buffer = ByteBuffer.wrap(digest);
+                return new TokenHash(buffer.getLong(), buffer.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
         }
-        return false;
     }
 }
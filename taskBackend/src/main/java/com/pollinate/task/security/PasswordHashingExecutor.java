@@ -0,0 +1,122 @@
+package com.pollinate.task.security;
+
+import com.pollinate.task.configuration.PasswordConfigurationProperties;
+import com.pollinate.task.exception.ServerBusyException;
+import com.pollinate.task.logging.LogSampler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt work for /login and /register on its own bounded pool so a burst of logins
+ * cannot tie up the request threads that serve /tasks. When both the pool and its queue are
+ * full the work is refused immediately instead of queueing without bound.
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor {
+
+    @Autowired
+    private PasswordConfigurationProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor executor;
+
+    private Counter rejections;
+
+    private final Map<Operation, OperationTimers> timers = new EnumMap<>(Operation.class);
+
+    private final LogSampler saturationLog = new LogSampler(Duration.ofSeconds(1));
+
+    @PostConstruct
+    public void init() {
+        int threads = Math.max(1, properties.getPoolSize());
+        BlockingQueue<Runnable> queue = properties.getQueueCapacity() > 0
+                ? new ArrayBlockingQueue<>(properties.getQueueCapacity())
+                : new SynchronousQueue<>();
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                queue, threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        // pool size, active, queued and completed counts
+        new ExecutorServiceMetrics(executor, "password-hashing", List.of()).bindTo(meterRegistry);
+        this.rejections = Counter.builder("auth.password.rejected")
+                .description("Password work refused because the hashing pool was full")
+                .register(meterRegistry);
+        for (Operation operation : Operation.values()) {
+            timers.put(operation, new OperationTimers(timer("auth.password.queued", operation), timer("auth.password.hash", operation)));
+        }
+    }
+
+    /**
+     * Runs the work on the pool. The time spent waiting for a pool thread and the time the
+     * work itself takes (the BCrypt check or hash) are recorded separately, tagged with the
+     * operation name.
+     */
+    public <T> CompletableFuture<T> submit(Operation operation, Supplier<T> work) {
+        OperationTimers timer = timers.get(operation);
+        long submittedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long startedAt = System.nanoTime();
+                timer.queued().record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return work.get();
+                } finally {
+                    timer.hashing().record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            if (saturationLog.sample() >= 0) {
+                log.warn("Password hashing pool saturated ({} active, {} queued)", executor.getActiveCount(), executor.getQueue().size());
+            }
+            throw new ServerBusyException("Too many concurrent authentication requests", properties.getRetryAfter());
+        }
+    }
+
+    private Timer timer(String name, Operation operation) {
+        return Timer.builder(name)
+                .tag("operation", operation.name().toLowerCase(Locale.ROOT))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public ThreadPoolExecutor getExecutor() {
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public enum Operation {
+        LOGIN,
+        REGISTER
+    }
+
+    private record OperationTimers(Timer queued, Timer hashing) {
+    }
+}
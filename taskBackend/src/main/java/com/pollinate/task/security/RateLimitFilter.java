@@ -0,0 +1,109 @@
+package com.pollinate.task.security;
+
+import com.pollinate.task.configuration.RateLimitConfigurationProperties;
+import com.pollinate.task.logging.LogSampler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-caller request limits. Runs after AuthTokenFilter: requests with a valid JWT draw from
+ * their user's bucket, everything else (login and register in particular, which pay for a
+ * BCrypt check) from the client address's. Over the limit the request is answered with 429
+ * and a Retry-After before reaching anything else. Behind a proxy set
+ * server.forward-headers-strategy so the client address is the caller's, not the proxy's.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitConfigurationProperties properties;
+
+    private final TokenBucketLimiter users;
+
+    private final TokenBucketLimiter addresses;
+
+    private final Counter userRejections;
+
+    private final Counter addressRejections;
+
+    private final LogSampler rejectionLog = new LogSampler(Duration.ofSeconds(1));
+
+    public RateLimitFilter(RateLimitConfigurationProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        RateLimitConfigurationProperties.Limit user = properties.getUser();
+        RateLimitConfigurationProperties.Limit ip = properties.getIp();
+        this.users = new TokenBucketLimiter(user.getRequestsPerSecond(), user.getBurst(), properties.getMaxKeys());
+        this.addresses = new TokenBucketLimiter(ip.getRequestsPerSecond(), ip.getBurst(), properties.getMaxKeys());
+        this.userRejections = rejections(meterRegistry, "user");
+        this.addressRejections = rejections(meterRegistry, "ip");
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String key) {
+        return Counter.builder("http.server.requests.throttled")
+                .description("Requests answered with 429 by the rate limiter")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // CORS preflights and health/metrics scrapes are not client traffic
+        return !properties.isEnabled()
+                || HttpMethod.OPTIONS.matches(request.getMethod())
+                || request.getRequestURI().startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        long now = System.nanoTime();
+        long wait;
+        if (auth != null) {
+            wait = users.tryAcquire(auth.getName(), now);
+            if (wait > 0) {
+                userRejections.increment();
+            }
+        } else {
+            wait = addresses.tryAcquire(request.getRemoteAddr(), now);
+            if (wait > 0) {
+                addressRejections.increment();
+            }
+        }
+        if (wait > 0) {
+            long suppressed = rejectionLog.sample();
+            if (suppressed >= 0) {
+                log.info("Rate limited {} {} from {} ({} similar rejections suppressed)",
+                        request.getMethod(), request.getRequestURI(), auth != null ? auth.getName() : request.getRemoteAddr(), suppressed);
+            }
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            // whole seconds, rounded up so a client that waits exactly this long gets through
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ceilSeconds(wait))));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
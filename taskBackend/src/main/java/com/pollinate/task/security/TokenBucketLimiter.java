@@ -0,0 +1,61 @@
+package com.pollinate.task.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Token buckets for many keys in the GCRA form: a bucket is one long, the time at which it
+ * would be full again, and admitting a request is a single compare-and-set that pushes that
+ * time forward by one token's worth. There is no lock and no refill task. A bucket that is
+ * full again carries no state, so buckets expire after one full refill period without
+ * requests and the map only holds recently active keys.
+ */
+public class TokenBucketLimiter {
+
+    // created full: the first request sees max(fullAt, now) = now
+    private static final Function<String, AtomicLong> NEW_BUCKET = key -> new AtomicLong(Long.MIN_VALUE);
+
+    // nanoseconds per token
+    private final long interval;
+
+    // nanoseconds a full bucket covers, burst tokens
+    private final long capacity;
+
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketLimiter(double requestsPerSecond, int burst, long maxKeys) {
+        if (requestsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.interval = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / requestsPerSecond));
+        this.capacity = Math.multiplyExact(interval, (long) burst);
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofNanos(capacity))
+                .maximumSize(maxKeys)
+                .build();
+    }
+
+    /**
+     * Takes a token for {@code key} at {@code now} (System.nanoTime). Returns 0 when the
+     * request is admitted, otherwise the nanoseconds until a token is available.
+     */
+    public long tryAcquire(String key, long now) {
+        AtomicLong fullAt = buckets.get(key, NEW_BUCKET);
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - capacity;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
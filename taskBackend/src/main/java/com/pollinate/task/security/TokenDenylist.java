@@ -0,0 +1,76 @@
+package com.pollinate.task.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory ids (jti) of tokens revoked before their expiry, e.g. by /logout. Each entry
+ * lives only until the revoked token's own exp claim, after which signature verification
+ * rejects the token anyway, so the set never holds more than the tokens revoked within
+ * one jwt.expiration.
+ * <p>
+ * There is deliberately no size bound: evicting an entry early would make its token valid
+ * again. Revoking every session of a user is {@link UserVersionRegistry#bump}, not this.
+ */
+@Component
+public class TokenDenylist {
+
+    // jti to the token's exp in epoch millis
+    private final Cache<String, Long> revoked = Caffeine.newBuilder()
+            .expireAfter(new ExpireAtTokenExpiry())
+            .build();
+
+    public TokenDenylist(MeterRegistry meterRegistry) {
+        Gauge.builder("jwt.revoked", revoked, Cache::estimatedSize)
+                .description("Revoked JWTs not yet expired")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Revokes the token these claims were verified from. Tokens issued before jti was
+     * stamped cannot be revoked one by one and simply run to their expiry.
+     */
+    public void revoke(Claims claims) {
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            return;
+        }
+        revoked.put(claims.getId(), claims.getExpiration().getTime());
+    }
+
+    /**
+     * Called on every authenticated request: a single hash lookup on the jti string the
+     * claims already hold, no allocation.
+     */
+    public boolean isRevoked(Claims claims) {
+        String id = claims.getId();
+        return id != null && revoked.getIfPresent(id) != null;
+    }
+
+    /**
+     * Expires each entry at the revoked token's exp claim.
+     */
+    private static final class ExpireAtTokenExpiry implements Expiry<String, Long> {
+
+        @Override
+        public long expireAfterCreate(String id, Long expiresAt, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(expiresAt - System.currentTimeMillis(), 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String id, Long expiresAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String id, Long expiresAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
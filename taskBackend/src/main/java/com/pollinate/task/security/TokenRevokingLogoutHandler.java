@@ -0,0 +1,41 @@
+package com.pollinate.task.security;
+
+import com.pollinate.task.configuration.AppConfigurationProperties;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.logout.LogoutHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Deleting the cookie only logs out the browser that sent it; revoking the token's jti
+ * also refuses any copy of it until it expires.
+ */
+@Slf4j
+@Component
+public class TokenRevokingLogoutHandler implements LogoutHandler {
+
+    @Autowired
+    private JwtUtil jwtUtils;
+
+    @Autowired
+    private TokenDenylist denylist;
+
+    @Autowired
+    private AppConfigurationProperties properties;
+
+    @Override
+    public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+        Cookie cookie = WebUtils.getCookie(request, properties.getName());
+        Claims claims = cookie == null ? null : jwtUtils.verify(cookie.getValue());
+        if (claims != null) {
+            denylist.revoke(claims);
+            log.debug("Revoked token for user {} on logout", claims.getSubject());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.pollinate.task.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.pollinate.task.configuration.AppConfigurationProperties;
+import com.pollinate.task.datasource.RecentWriters;
+import com.pollinate.task.repository.UserRepository;
+import org.springframework.stereotype.Component;
+
+/**
+ * User versions stamped into every JWT. Bumping a user's version invalidates all tokens
+ * issued before it. The version lives in users.token_version, so a restart neither brings
+ * revoked tokens back nor rejects ones issued since; a bounded in-memory copy keeps the
+ * check on every request a cache hit, with one indexed lookup per user after a miss.
+ * <p>
+ * A user without a row is at {@link #DELETED}, which no token carries, so the tokens of a
+ * deleted user stop working as soon as the cached version is dropped by {@link #bump}.
+ */
+@Component
+public class UserVersionRegistry {
+
+    public static final int DELETED = -1;
+
+    private final UserRepository userRepository;
+
+    private final RecentWriters recentWriters;
+
+    private final LoadingCache<String, Integer> versions;
+
+    public UserVersionRegistry(UserRepository userRepository, RecentWriters recentWriters,
+                               AppConfigurationProperties properties) {
+        this.userRepository = userRepository;
+        this.recentWriters = recentWriters;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(properties.getUserVersionCacheSize())
+                .expireAfterWrite(properties.getUserVersionCacheTtl())
+                .build(this::load);
+    }
+
+    public int current(String username) {
+        Integer version = versions.get(username);
+        return version == null ? DELETED : version;
+    }
+
+    public boolean isCurrent(String username, int tokenVersion) {
+        int current = current(username);
+        return current != DELETED && tokenVersion == current;
+    }
+
+    /**
+     * Call when a user is deleted (after the row is gone), disabled or has their
+     * credentials changed.
+     */
+    public int bump(String username) {
+        userRepository.incrementTokenVersion(username);
+        recentWriters.recordWrite(username);
+        versions.invalidate(username);
+        return current(username);
+    }
+
+    private Integer load(String username) {
+        // runs before authentication; a user who was just bumped is read from the primary
+        Integer version = recentWriters.readAs(username, () -> userRepository.findTokenVersionByUsername(username));
+        // null is not cached, so a name registered again after a delete is seen at once
+        return version;
+    }
+}
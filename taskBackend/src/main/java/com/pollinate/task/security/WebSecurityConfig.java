@@ -1,7 +1,10 @@
 package com.pollinate.task.security;
 
 import com.pollinate.task.configuration.AppConfigurationProperties;
+import com.pollinate.task.configuration.PasswordConfigurationProperties;
+import com.pollinate.task.logging.MdcLoggingFilter;
 import com.pollinate.task.service.CustomUserDetailsService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -31,12 +34,24 @@ public class WebSecurityConfig {
     @Autowired
     private AppConfigurationProperties properties;
 
+    @Autowired
+    private PasswordConfigurationProperties passwordProperties;
+
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
 
     @Autowired
     private AuthTokenFilter authTokenFilter;
 
+    @Autowired
+    private MdcLoggingFilter mdcLoggingFilter;
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private TokenRevokingLogoutHandler tokenRevokingLogoutHandler;
+
     @Bean
     public AuthenticationManager authenticationManager(
             AuthenticationConfiguration authenticationConfiguration
@@ -46,7 +61,8 @@ public class WebSecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        // upgradeEncoding() reports hashes below this cost, which triggers a re-hash on login
+        return new BCryptPasswordEncoder(passwordProperties.getStrength());
     }
 
     @Bean
@@ -68,17 +84,26 @@ public class WebSecurityConfig {
                     authorizeRequests
                             .requestMatchers(HttpMethod.POST, "/login", "/register", "/logout").permitAll()
                             .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                            // the initial dispatch of an async response (SSE, streamed export, login)
+                            // was already authorized; its async re-dispatch carries no JWT context
+                            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                             .requestMatchers("/h2-console/**").permitAll() // H2 console (dev only)
+                            .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
                             .anyRequest().authenticated()
             )
             .logout(logout -> logout
                 .logoutUrl("/logout")
+                .addLogoutHandler(tokenRevokingLogoutHandler)
                 .logoutSuccessHandler(new HttpStatusReturningLogoutSuccessHandler(HttpStatus.NO_CONTENT))
                 .deleteCookies(properties.getName())
                 .permitAll()
         );
         // Add the JWT Token filter before the UsernamePasswordAuthenticationFilter
         http.addFilterBefore(authTokenFilter, UsernamePasswordAuthenticationFilter.class);
+        // request id and user into the MDC once the user is known
+        http.addFilterAfter(mdcLoggingFilter, AuthTokenFilter.class);
+        // per-user or per-address limits, once the caller is known and its 429s carry a request id
+        http.addFilterAfter(rateLimitFilter, MdcLoggingFilter.class);
         return http.build();
     }
 
@@ -89,11 +114,13 @@ public class WebSecurityConfig {
         cfg.setAllowedOrigins(List.of("http://localhost:4200"));
 
         cfg.setAllowedMethods(List.of("GET","POST","PUT","PATCH","DELETE","OPTIONS"));
-        cfg.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-XSRF-TOKEN"));
+        // If-Match carries a task's ETag for optimistic updates and deletes
+        // and Prefer: return=minimal answers a create or update with 204 and only the ETag
+        cfg.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-XSRF-TOKEN", "If-Match", "Prefer"));
         cfg.setAllowCredentials(true);
 
         // If using custom headers for auth/csrf, expose them as needed
-        cfg.setExposedHeaders(List.of("Set-Cookie"));
+        cfg.setExposedHeaders(List.of("Set-Cookie", "ETag"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", cfg);
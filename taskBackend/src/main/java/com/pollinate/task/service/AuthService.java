@@ -1,29 +1,112 @@
 package com.pollinate.task.service;
 
+import com.pollinate.task.datasource.RecentWriters;
+import com.pollinate.task.exception.UsernameTakenException;
 import com.pollinate.task.model.AuthRequest;
 import com.pollinate.task.repository.UserRepository;
+import com.pollinate.task.security.UserVersionRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
 
 @Slf4j
 @Service
 public class AuthService {
 
+    // V1__create_users_and_tasks.sql
+    private static final String USERNAME_CONSTRAINT = "uk_users_username";
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private RecentWriters recentWriters;
+
+    @Autowired
+    private KnownUsernames knownUsernames;
+
+    @Autowired
+    private UserVersionRegistry userVersions;
+
+    /**
+     * Registers the user with a single insert. There is no existence check first: the
+     * unique constraint on users.username decides between concurrent registrations, and
+     * the losers get {@link UsernameTakenException}. Any other integrity violation is
+     * rethrown as it is.
+     */
     public AuthRequest saveUser(AuthRequest request) {
         String encodedPassword = passwordEncoder.encode(request.getPassword());
         AuthRequest updatedRequest = AuthRequest.builder().username(request.getUsername()).password(encodedPassword).build();
-        return userRepository.save(updatedRequest);
+        AuthRequest saved;
+        try {
+            saved = userRepository.save(updatedRequest);
+        } catch (DataIntegrityViolationException e) {
+            if (!violates(e, USERNAME_CONSTRAINT)) {
+                throw e;
+            }
+            knownUsernames.add(request.getUsername());
+            throw new UsernameTakenException(request.getUsername());
+        }
+        knownUsernames.add(saved.getUsername());
+        // the login that usually follows must not miss the new user on a lagging replica
+        recentWriters.recordWrite(saved.getUsername());
+        return saved;
+    }
+
+    /**
+     * Memory-only check for names known to be taken; false means "try the insert".
+     */
+    public boolean isKnownUsername(String username) {
+        return knownUsernames.isTaken(username);
+    }
+
+    /**
+     * Invalidates every token issued to the user so far by bumping their persisted token
+     * version; the user can log in again straight away. Behind POST /logout-all, and for
+     * account changes such as a password reset. A single token is revoked by /logout instead.
+     */
+    public void revokeAllSessions(String username) {
+        int version = userVersions.bump(username);
+        log.info("Revoked all sessions of user {} (now at version {})", username, version);
+    }
+
+    /**
+     * Removes the user's account. Their tokens are refused from the next request on: the
+     * version lookup no longer finds the user, which no token can match. The user's tasks
+     * are left in place.
+     */
+    public void deleteUser(String username) {
+        userRepository.deleteByUsername(username);
+        userVersions.bump(username);
+        knownUsernames.remove(username);
+        log.info("Deleted user {}", username);
+    }
+
+    // Hibernate names the constraint when the dialect can parse it out of the driver's
+    // message; H2 reports it as e.g. PUBLIC.UK_USERS_USERNAME_INDEX_4, hence contains()
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String text = cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    ? violation.getConstraintName()
+                    : cause.getMessage();
+            if (text != null && text.toLowerCase(Locale.ROOT).contains(constraint)) {
+                return true;
+            }
+        }
+        return false;
     }
 
+    @Transactional(readOnly = true)
     public Boolean existsByUsername(String username) {
-        return userRepository.existsByUsername(username);
+        return recentWriters.readAs(username, () -> userRepository.existsByUsername(username));
     }
 }
@@ -1,21 +1,29 @@
 package com.pollinate.task.service;
 
+import com.pollinate.task.datasource.RecentWriters;
 import com.pollinate.task.model.AuthRequest;
 import com.pollinate.task.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
 import java.util.Collections;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RecentWriters recentWriters;
+
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        AuthRequest user = userRepository.findByUsername(username);
+        // runs before authentication, so name the reader for read-your-writes routing
+        AuthRequest user = recentWriters.readAs(username, () -> userRepository.findByUsername(username));
         if (user == null) {
             throw new UsernameNotFoundException("User Not Found with username: " + username);
         }
@@ -25,4 +33,24 @@ public class CustomUserDetailsService implements UserDetailsService {
                 Collections.emptyList()
         );
     }
+
+    /**
+     * Called by the authentication provider after a successful login whose stored hash was
+     * made with a lower BCrypt cost than the one currently configured.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        AuthRequest stored = userRepository.findByUsername(user.getUsername());
+        if (stored == null) {
+            return user;
+        }
+        stored.setPassword(newPassword);
+        userRepository.save(stored);
+        recentWriters.recordWrite(stored.getUsername());
+        return new User(
+                stored.getUsername(),
+                newPassword,
+                user.getAuthorities()
+        );
+    }
 }
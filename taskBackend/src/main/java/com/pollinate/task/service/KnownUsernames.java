@@ -0,0 +1,76 @@
+package com.pollinate.task.service;
+
+import com.pollinate.task.configuration.RegistrationConfigurationProperties;
+import com.pollinate.task.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Usernames known to be taken, so /register can turn an obvious duplicate down before it
+ * pays for a BCrypt hash and a failed insert. Loaded from the users table at startup
+ * (registration.warm-on-startup) and added to on every registration this instance sees.
+ * A user deleted on another instance stays in the set until restart; a miss proves
+ * nothing and the unique constraint on users.username decides.
+ */
+@Slf4j
+@Component
+public class KnownUsernames {
+
+    private final Set<String> names = ConcurrentHashMap.newKeySet();
+
+    private final RegistrationConfigurationProperties properties;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public KnownUsernames(RegistrationConfigurationProperties properties) {
+        this.properties = properties;
+    }
+
+    public boolean isTaken(String username) {
+        return properties.isKnownUsernames() && names.contains(username);
+    }
+
+    public void add(String username) {
+        if (properties.isKnownUsernames()) {
+            names.add(username);
+        }
+    }
+
+    public void remove(String username) {
+        names.remove(username);
+    }
+
+    /**
+     * Runs off the startup thread; until it finishes, duplicates are caught by the insert.
+     * Reads the primary in a read-write transaction, as the search index loads do: a
+     * replica may lag, or at startup not have its schema yet.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        if (!properties.isKnownUsernames() || !properties.isWarmOnStartup()) {
+            return;
+        }
+        long start = System.nanoTime();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try (Stream<String> usernames = userRepository.streamAllUsernames(properties.getFetchSize())) {
+                usernames.forEach(names::add);
+            }
+        });
+        log.info("Loaded {} known usernames in {} ms", names.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
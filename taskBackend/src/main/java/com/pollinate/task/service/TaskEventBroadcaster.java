@@ -0,0 +1,374 @@
+package com.pollinate.task.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pollinate.task.configuration.TaskConfigurationProperties;
+import com.pollinate.task.model.TaskChangedEvent;
+import com.pollinate.task.model.TaskStreamEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes committed task changes to the owner's open /tasks/stream connections.
+ * <p>
+ * Subscribers are async SSE responses, so an idle subscription holds no thread. Each one
+ * has a bounded queue drained by its own virtual thread while there is something to send,
+ * so a client that stops reading only blocks its own writes (until the container's write
+ * timeout fails them); a subscriber whose queue fills up is disconnected and resumes with
+ * Last-Event-ID. Recent events are kept per owner for
+ * that resume; when the requested id is older than what is kept, a {@code reset} event
+ * tells the client to reload the list instead.
+ */
+@Slf4j
+@Component
+public class TaskEventBroadcaster implements MeterBinder {
+
+    static final String RESET_EVENT = "reset";
+
+    private final TaskConfigurationProperties.Stream config;
+
+    private final ObjectMapper objectMapper;
+
+    // event ids are "<epoch>-<sequence>", so ids from before a restart are recognised as stale
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ConcurrentMap<String, OwnerChannel> channels = new ConcurrentHashMap<>();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final LongAdder slowDisconnects = new LongAdder();
+
+    private ExecutorService writers;
+
+    private ScheduledExecutorService heartbeats;
+
+    public TaskEventBroadcaster(TaskConfigurationProperties properties, ObjectMapper objectMapper) {
+        this.config = properties.getStream();
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+        this.writers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-stream-writer-", 0).factory());
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(daemonThreads("task-stream-heartbeat-"));
+        long period = config.getHeartbeat().toMillis();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(Subscriber::close));
+        writers.shutdown();
+    }
+
+    public SseEmitter subscribe(String owner, String lastEventId) {
+        return subscribe(owner, lastEventId, new SseEmitter(config.getTimeout().toMillis()));
+    }
+
+    SseEmitter subscribe(String owner, String lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        // lets proxies and the client see the stream open before the first real event
+        subscriber.offer(Outgoing.comment("connected"));
+        OwnerChannel channel;
+        while (true) {
+            channel = channels.computeIfAbsent(owner, k -> new OwnerChannel(sequence.get()));
+            channel.lock.lock();
+            try {
+                if (channel.closed) {
+                    continue;
+                }
+                // replay and registration under the channel lock, so no live event can slip between them
+                if (lastEventId != null) {
+                    channel.replayAfter(lastEventId, subscriber);
+                }
+                channel.subscribers.add(subscriber);
+                break;
+            } finally {
+                channel.lock.unlock();
+            }
+        }
+        subscriberCount.incrementAndGet();
+        OwnerChannel subscribed = channel;
+        emitter.onCompletion(() -> unsubscribe(subscribed, subscriber));
+        emitter.onError(e -> unsubscribe(subscribed, subscriber));
+        emitter.onTimeout(subscriber::close);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(new TaskStreamEvent(event.getType(), event.getTask()));
+        } catch (JsonProcessingException e) {
+            log.warn("Cannot serialize task event for user {}", event.getOwner(), e);
+            return;
+        }
+        while (true) {
+            OwnerChannel channel = channels.computeIfAbsent(event.getOwner(), k -> new OwnerChannel(sequence.get()));
+            channel.lock.lock();
+            try {
+                if (channel.closed) {
+                    continue;
+                }
+                long seq = sequence.incrementAndGet();
+                Outgoing outgoing = new Outgoing(seq, epoch + "-" + seq, event.getType().name().toLowerCase(Locale.ROOT), data, null);
+                channel.append(outgoing, config.getReplaySize());
+                // serialized once above; each subscriber only queues a reference
+                channel.subscribers.forEach(subscriber -> subscriber.offer(outgoing));
+                return;
+            } finally {
+                channel.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("tasks.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open /tasks/stream connections")
+                .register(registry);
+        FunctionCounter.builder("tasks.stream.slow.disconnects", slowDisconnects, LongAdder::sum)
+                .description("Subscribers dropped because their buffer was full")
+                .register(registry);
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void unsubscribe(OwnerChannel channel, Subscriber subscriber) {
+        subscriber.closed = true;
+        if (channel.subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Heartbeat comments keep idle connections from being cut by proxies and surface dead
+     * clients as write errors. The same pass drops replay logs nobody can resume from anymore.
+     */
+    private void heartbeat() {
+        try {
+            long now = System.nanoTime();
+            long ttl = config.getReplayTtl().toNanos();
+            Outgoing ping = Outgoing.comment("heartbeat");
+            channels.forEach((owner, channel) -> {
+                channel.subscribers.forEach(subscriber -> subscriber.offer(ping));
+                if (channel.subscribers.isEmpty() && now - channel.lastEventAt > ttl && channel.lock.tryLock()) {
+                    try {
+                        if (channel.subscribers.isEmpty()) {
+                            channel.closed = true;
+                            channels.remove(owner, channel);
+                        }
+                    } finally {
+                        channel.lock.unlock();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // an escaping exception would cancel the schedule
+            log.warn("Task stream heartbeat failed", e);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * One SSE frame. Kept immutable (SseEventBuilder is not) so one instance can be queued
+     * for every subscriber and replayed later.
+     */
+    private record Outgoing(long seq, String id, String name, String data, String comment) {
+
+        static Outgoing comment(String text) {
+            return new Outgoing(0, null, null, null, text);
+        }
+
+        SseEmitter.SseEventBuilder toBuilder() {
+            SseEmitter.SseEventBuilder builder = SseEmitter.event();
+            if (comment != null) {
+                return builder.comment(comment);
+            }
+            if (id != null) {
+                builder.id(id);
+            }
+            return builder.name(name).data(data);
+        }
+    }
+
+    private final class OwnerChannel {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+        // guarded by lock
+        private final ArrayDeque<Outgoing> replay = new ArrayDeque<>();
+
+        // events up to this sequence are no longer in the replay log; guarded by lock
+        private long evictedUpTo;
+
+        private volatile long lastEventAt = System.nanoTime();
+
+        // set once the channel is dropped from the map; guarded by lock
+        private boolean closed;
+
+        OwnerChannel(long evictedUpTo) {
+            // a new channel knows nothing about events sent before it existed
+            this.evictedUpTo = evictedUpTo;
+        }
+
+        void append(Outgoing event, int capacity) {
+            replay.addLast(event);
+            while (replay.size() > capacity) {
+                evictedUpTo = replay.removeFirst().seq();
+            }
+            lastEventAt = System.nanoTime();
+        }
+
+        void replayAfter(String lastEventId, Subscriber subscriber) {
+            long after = parseSequence(lastEventId);
+            if (after < 0 || after < evictedUpTo || after > sequence.get()) {
+                subscriber.offer(new Outgoing(0, null, RESET_EVENT, "{}", null));
+                return;
+            }
+            long missed = replay.stream().filter(event -> event.seq() > after).count();
+            if (missed >= config.getBufferSize()) {
+                // more than the subscriber buffer holds; reloading the list is cheaper anyway
+                subscriber.offer(new Outgoing(0, null, RESET_EVENT, "{}", null));
+                return;
+            }
+            for (Outgoing event : replay) {
+                if (event.seq() > after) {
+                    subscriber.offer(event);
+                }
+            }
+        }
+
+        private long parseSequence(String id) {
+            int dash = id.lastIndexOf('-');
+            if (dash < 0 || !id.substring(0, dash).equals(epoch)) {
+                return -1;
+            }
+            try {
+                return Long.parseLong(id.substring(dash + 1));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+
+        private final Queue<Outgoing> queue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger queued = new AtomicInteger();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Outgoing event) {
+            if (closed) {
+                return;
+            }
+            if (queued.incrementAndGet() > config.getBufferSize()) {
+                queued.decrementAndGet();
+                slowDisconnects.increment();
+                log.debug("Disconnecting task stream subscriber with {} undelivered events", queued.get());
+                close();
+                return;
+            }
+            queue.add(event);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    close();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Outgoing event;
+                while (!closed && (event = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    emitter.send(event.toBuilder());
+                }
+            } catch (IOException | IllegalStateException e) {
+                // client gone or emitter already completed
+                close();
+            } finally {
+                scheduled.set(false);
+                if (!closed && !queue.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+
+        void close() {
+            if (!closed) {
+                closed = true;
+                queue.clear();
+                // complete() waits for a send in progress, which may be stuck on this very
+                // client; never make the publishing request or the heartbeat wait for it
+                try {
+                    writers.execute(emitter::complete);
+                } catch (RejectedExecutionException e) {
+                    emitter.complete();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.pollinate.task.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.pollinate.task.configuration.TaskConfigurationProperties;
+import com.pollinate.task.model.TaskExportFormat;
+import com.pollinate.task.model.TaskView;
+import com.pollinate.task.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes all of an owner's tasks straight from a database cursor to an output stream.
+ * Rows are read as TaskView projections that nothing keeps a reference to, so memory stays
+ * flat however many tasks the owner has, and output is flushed every fetch-size rows so the
+ * client sees steady chunks.
+ */
+@Slf4j
+@Service
+public class TaskExporter {
+
+    private static final String CSV_HEADER = "id,title,dueDate\r\n";
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskConfigurationProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Streams the owner's tasks in the given format and returns the number written. An
+     * IOException from the output (typically the client going away) ends the export and
+     * releases the cursor.
+     */
+    @Transactional(readOnly = true)
+    public long export(String owner, TaskExportFormat format, OutputStream out) throws IOException {
+        int fetchSize = properties.getExport().getFetchSize();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ObjectWriter json = objectMapper.writerFor(TaskView.class);
+        long count = 0;
+        try (Stream<TaskView> tasks = taskRepository.streamByOwner(owner, fetchSize);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            // the generator must never close or flush the writer on its own
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            if (format == TaskExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+            }
+            Iterator<TaskView> rows = tasks.iterator();
+            while (rows.hasNext()) {
+                TaskView task = rows.next();
+                if (format == TaskExportFormat.CSV) {
+                    writeCsv(writer, task);
+                } else {
+                    json.writeValue(generator, task);
+                    generator.flush();
+                    writer.write('\n');
+                }
+                if (++count % fetchSize == 0) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            log.debug("Export for user {} stopped after {} tasks: {}", owner, count, e.getMessage());
+            throw e;
+        }
+        log.debug("Exported {} tasks for user {} as {}", count, owner, format);
+        return count;
+    }
+
+    private static void writeCsv(Writer writer, TaskView task) throws IOException {
+        writer.write(String.valueOf(task.id()));
+        writer.write(',');
+        writer.write(csvField(task.title()));
+        writer.write(',');
+        if (task.dueDate() != null) {
+            writer.write(task.dueDate().toString());
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks, doubling quotes
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,148 @@
+package com.pollinate.task.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.pollinate.task.configuration.TaskConfigurationProperties;
+import com.pollinate.task.model.TaskChangedEvent;
+import com.pollinate.task.model.TaskPage;
+import com.pollinate.task.model.TaskPageQuery;
+import com.pollinate.task.model.TaskView;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of task reads keyed by owner. Each owner entry holds the full list
+ * and any pages requested since the owner's last write; a committed write drops the whole
+ * entry so the next read after it always goes to the database.
+ */
+@Slf4j
+@Component
+public class TaskListCache implements MeterBinder {
+
+    private static final Object ALL_TASKS = new Object();
+
+    private final boolean enabled;
+
+    private final int maxQueriesPerOwner;
+
+    private final Cache<String, OwnerEntry> owners;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public TaskListCache(TaskConfigurationProperties properties) {
+        TaskConfigurationProperties.Cache config = properties.getCache();
+        this.enabled = config.isEnabled();
+        this.maxQueriesPerOwner = config.getMaxQueriesPerOwner();
+        this.owners = Caffeine.newBuilder()
+                .maximumSize(config.getMaxOwners())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    public List<TaskView> getAll(String owner, Supplier<List<TaskView>> loader) {
+        return get(owner, ALL_TASKS, loader);
+    }
+
+    public TaskPage getPage(String owner, TaskPageQuery query, Supplier<TaskPage> loader) {
+        return get(owner, query, loader);
+    }
+
+    public void invalidate(String owner) {
+        owners.invalidate(owner);
+    }
+
+    /**
+     * Hits and misses are counted per cached read, evictions per owner entry
+     * (size or TTL; explicit invalidations are not evictions).
+     */
+    public CacheStats stats() {
+        CacheStats ownerStats = owners.stats();
+        return CacheStats.of(hits.sum(), misses.sum(), 0, 0, 0,
+                ownerStats.evictionCount(), ownerStats.evictionWeight());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("tasks.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("tasks.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("tasks.cache.evictions", owners, cache -> cache.stats().evictionCount())
+                .register(registry);
+        Gauge.builder("tasks.cache.owners", owners, Cache::estimatedSize)
+                .description("Owners with cached task reads")
+                .register(registry);
+    }
+
+    @Order(TaskChangedEvent.INVALIDATE_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        invalidate(event.getOwner());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(String owner, Object key, Supplier<T> loader) {
+        if (!enabled || owner == null) {
+            return loader.get();
+        }
+        OwnerEntry entry = owners.get(owner, k -> new OwnerEntry());
+        if (entry.values.size() >= maxQueriesPerOwner) {
+            entry.values.clear();
+        }
+        // The database read runs on the calling thread, outside any map lock. If the owner is
+        // invalidated meanwhile the result lands in a detached entry and is never served again.
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = entry.values.putIfAbsent(key, mine);
+        if (existing == null) {
+            misses.increment();
+            try {
+                T value = loader.get();
+                mine.complete(value);
+                return value;
+            } catch (RuntimeException e) {
+                entry.values.remove(key, mine);
+                mine.completeExceptionally(e);
+                throw e;
+            }
+        }
+        hits.increment();
+        try {
+            return (T) existing.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return loader.get();
+        } catch (ExecutionException e) {
+            log.debug("Concurrent task load for user {} failed, loading again", owner);
+            return loader.get();
+        }
+    }
+
+    private static final class OwnerEntry {
+
+        private final ConcurrentMap<Object, CompletableFuture<Object>> values = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,348 @@
+package com.pollinate.task.service;
+
+import com.pollinate.task.configuration.TaskConfigurationProperties;
+import com.pollinate.task.model.TaskChangedEvent;
+import com.pollinate.task.model.TaskTitle;
+import com.pollinate.task.repository.TaskRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Per-owner inverted index from title words to task ids, so title search never scans the
+ * tasks table. Only ids and words are held; matching rows are read back by id.
+ * <p>
+ * Owners are indexed in the background at startup (tasks.search.warm-on-startup) or on
+ * their first search, and kept current from committed TaskChangedEvents. Changes that land
+ * while an owner is being loaded, or anywhere during the warm-up, win over the rows the
+ * load read.
+ */
+@Slf4j
+@Component
+public class TaskSearchIndex implements MeterBinder {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // rough heap cost of the structures below, for the reported estimate
+    private static final int TASK_BYTES = 64;
+    private static final int TOKEN_REF_BYTES = 4;
+    private static final int POSTING_BYTES = 56;
+    private static final int TERM_BYTES = 144;
+
+    private static final int EXACT_SCORE = 2;
+    private static final int PREFIX_SCORE = 1;
+
+    private final TaskConfigurationProperties.Search config;
+
+    private final TaskRepository taskRepository;
+
+    // index loads read the primary, never a replica: a change committed before an owner is
+    // loaded but not yet replicated would otherwise be missing until that task changes again.
+    // A read-write transaction routes there; callers search outside a transaction, so the
+    // load's connection is the only one the search holds.
+    private final TransactionTemplate loadTransaction;
+
+    private final ConcurrentMap<String, OwnerIndex> owners = new ConcurrentHashMap<>();
+
+    private final AtomicLong indexedTasks = new AtomicLong();
+
+    private final AtomicLong estimatedBytes = new AtomicLong();
+
+    // while the warm-up cursor runs, an owner's rows may already be read but not installed
+    private volatile boolean warming;
+
+    public TaskSearchIndex(TaskConfigurationProperties properties, TaskRepository taskRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.config = properties.getSearch();
+        this.taskRepository = taskRepository;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Ids of the owner's tasks whose titles contain every query word, either exactly or as
+     * a prefix, best matches first (exact words score higher), newest first among equals.
+     * Call outside a transaction: an owner's first search loads them in a transaction of
+     * its own, which would otherwise join a caller's read-only one and read the replica.
+     */
+    public List<Long> search(String owner, String query, int limit) {
+        List<String> terms = tokenize(query, config.getMaxQueryTokens());
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        OwnerIndex index = load(owner);
+        Map<Long, Integer> scores = null;
+        index.lock.readLock().lock();
+        try {
+            for (String term : terms) {
+                Map<Long, Integer> matches = index.match(term);
+                if (scores == null) {
+                    scores = matches;
+                } else {
+                    // every term must match; keep the intersection and add up the scores
+                    Map<Long, Integer> previous = scores;
+                    scores = new HashMap<>();
+                    for (Map.Entry<Long, Integer> entry : matches.entrySet()) {
+                        Integer score = previous.get(entry.getKey());
+                        if (score != null) {
+                            scores.put(entry.getKey(), score + entry.getValue());
+                        }
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+        } finally {
+            index.lock.readLock().unlock();
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.getTask() == null || event.getTask().id() == null) {
+            return;
+        }
+        // during warm-up the cursor may have read this row already, so the change registers
+        // the owner's index and is tracked in touched like one landing during an on-demand load
+        OwnerIndex index = warming
+                ? owners.computeIfAbsent(event.getOwner(), k -> new OwnerIndex())
+                : owners.get(event.getOwner());
+        if (index == null) {
+            // not indexed yet; the load will read the committed row
+            return;
+        }
+        Long id = event.getTask().id();
+        index.lock.writeLock().lock();
+        try {
+            if (index.touched != null) {
+                index.touched.add(id);
+            }
+            index.remove(id);
+            if (event.getType() != TaskChangedEvent.Type.DELETED) {
+                index.add(id, event.getTask().title());
+            }
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes every owner from one ordered cursor over (id, owner, title). Started off the
+     * startup thread by {@link TaskSearchIndexWarmer}; owners searched before it reaches
+     * them are loaded on demand.
+     */
+    public void warm() {
+        if (!config.isWarmOnStartup()) {
+            return;
+        }
+        long start = System.nanoTime();
+        warming = true;
+        try {
+            loadTransaction.executeWithoutResult(status -> warmAll());
+        } finally {
+            warming = false;
+        }
+        log.info("Indexed {} task titles for {} owners in {} ms (~{} KiB)", indexedTasks.get(), owners.size(),
+                (System.nanoTime() - start) / 1_000_000, estimatedBytes.get() / 1024);
+    }
+
+    private void warmAll() {
+        try (Stream<TaskTitle> titles = taskRepository.streamAllTitles(config.getFetchSize())) {
+            String owner = null;
+            List<TaskTitle> rows = new ArrayList<>();
+            Iterator<TaskTitle> it = titles.iterator();
+            while (it.hasNext()) {
+                TaskTitle row = it.next();
+                if (owner != null && !owner.equals(row.owner())) {
+                    install(owner, rows);
+                    rows = new ArrayList<>();
+                }
+                owner = row.owner();
+                rows.add(row);
+            }
+            if (owner != null) {
+                install(owner, rows);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("tasks.search.index.owners", owners, Map::size)
+                .register(registry);
+        Gauge.builder("tasks.search.index.tasks", indexedTasks, AtomicLong::get)
+                .register(registry);
+        Gauge.builder("tasks.search.index.size", estimatedBytes, AtomicLong::get)
+                .description("Estimated heap used by the title index")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public long getIndexedTasks() {
+        return indexedTasks.get();
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes.get();
+    }
+
+    private OwnerIndex load(String owner) {
+        OwnerIndex index = owners.computeIfAbsent(owner, k -> new OwnerIndex());
+        if (!index.ready) {
+            index.loadLock.lock();
+            try {
+                if (!index.ready) {
+                    // read outside the index lock; events arriving meanwhile are tracked in touched
+                    index.install(loadTransaction.execute(status -> taskRepository.findTitlesByOwner(owner)));
+                }
+            } finally {
+                index.loadLock.unlock();
+            }
+        }
+        return index;
+    }
+
+    private void install(String owner, List<TaskTitle> rows) {
+        OwnerIndex index = owners.computeIfAbsent(owner, k -> new OwnerIndex());
+        index.loadLock.lock();
+        try {
+            if (!index.ready) {
+                index.install(rows);
+            }
+        } finally {
+            index.loadLock.unlock();
+        }
+    }
+
+    List<String> tokenize(String text, int maxTokens) {
+        if (text == null) {
+            return List.of();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String part : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            tokens.add(part.length() > config.getMaxTokenLength() ? part.substring(0, config.getMaxTokenLength()) : part);
+            if (tokens.size() == maxTokens) {
+                break;
+            }
+        }
+        return List.copyOf(tokens);
+    }
+
+    private final class OwnerIndex {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        // serializes the initial load; searches wait on it instead of loading twice
+        private final ReentrantLock loadLock = new ReentrantLock();
+
+        // guarded by lock
+        private final TreeMap<String, Set<Long>> postings = new TreeMap<>();
+
+        // guarded by lock
+        private final Map<Long, String[]> tokensById = new HashMap<>();
+
+        // ids changed by events while the initial load is in flight, null once ready; guarded by lock
+        private Set<Long> touched = new HashSet<>();
+
+        private volatile boolean ready;
+
+        void install(List<TaskTitle> rows) {
+            lock.writeLock().lock();
+            try {
+                for (TaskTitle row : rows) {
+                    if (!touched.contains(row.id())) {
+                        add(row.id(), row.title());
+                    }
+                }
+                touched = null;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        Map<Long, Integer> match(String term) {
+            Map<Long, Integer> matches = new HashMap<>();
+            NavigableMap<String, Set<Long>> prefixed = postings.subMap(term, true, term + Character.MAX_VALUE, false);
+            for (Map.Entry<String, Set<Long>> entry : prefixed.entrySet()) {
+                int score = entry.getKey().equals(term) ? EXACT_SCORE : PREFIX_SCORE;
+                for (Long id : entry.getValue()) {
+                    matches.merge(id, score, Math::max);
+                }
+            }
+            return matches;
+        }
+
+        void add(Long id, String title) {
+            String[] tokens = tokenize(title, config.getMaxTokensPerTask()).toArray(String[]::new);
+            long bytes = TASK_BYTES + (long) TOKEN_REF_BYTES * tokens.length;
+            for (String token : tokens) {
+                Set<Long> ids = postings.get(token);
+                if (ids == null) {
+                    ids = new HashSet<>();
+                    postings.put(token, ids);
+                    bytes += TERM_BYTES + 2L * token.length();
+                }
+                ids.add(id);
+                bytes += POSTING_BYTES;
+            }
+            tokensById.put(id, tokens);
+            indexedTasks.incrementAndGet();
+            estimatedBytes.addAndGet(bytes);
+        }
+
+        void remove(Long id) {
+            String[] tokens = tokensById.remove(id);
+            if (tokens == null) {
+                return;
+            }
+            long bytes = TASK_BYTES + (long) TOKEN_REF_BYTES * tokens.length;
+            for (String token : tokens) {
+                Set<Long> ids = postings.get(token);
+                if (ids != null && ids.remove(id)) {
+                    bytes += POSTING_BYTES;
+                    if (ids.isEmpty()) {
+                        postings.remove(token);
+                        bytes += TERM_BYTES + 2L * token.length();
+                    }
+                }
+            }
+            indexedTasks.decrementAndGet();
+            estimatedBytes.addAndGet(-bytes);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.pollinate.task.service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * Warms the title index on the async executor once the application is ready. Kept apart
+ * from {@link TaskSearchIndex} so the index is not wrapped in an async proxy, which as a
+ * MeterBinder would be a JDK proxy that cannot be injected by class.
+ */
+@Component
+public class TaskSearchIndexWarmer {
+
+    private final TaskSearchIndex searchIndex;
+
+    public TaskSearchIndexWarmer(TaskSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        searchIndex.warm();
+    }
+}
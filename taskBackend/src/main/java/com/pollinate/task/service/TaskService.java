@@ -1,16 +1,38 @@
 package com.pollinate.task.service;
 
+import com.pollinate.task.configuration.TaskConfigurationProperties;
+import com.pollinate.task.exception.IfMatchRequiredException;
+import com.pollinate.task.exception.TaskVersionConflictException;
+import com.pollinate.task.model.BatchTaskOperation;
+import com.pollinate.task.model.BatchTaskResult;
+import com.pollinate.task.model.Task;
+import com.pollinate.task.model.TaskChangedEvent;
+import com.pollinate.task.model.TaskCursor;
+import com.pollinate.task.model.TaskPage;
+import com.pollinate.task.model.TaskPageQuery;
 import com.pollinate.task.model.TaskRequest;
+import com.pollinate.task.model.TaskView;
 import com.pollinate.task.repository.TaskRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 @Slf4j
@@ -20,46 +42,319 @@ public class TaskService {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private TaskConfigurationProperties properties;
+
+    @Autowired
+    private TaskListCache taskListCache;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskVersionRegistry taskVersions;
+
+    @Autowired
+    private TaskSearchIndex searchIndex;
+
+    private DistributionSummary ownerSize;
+
+    @PostConstruct
+    public void init() {
+        this.ownerSize = DistributionSummary.builder("tasks.owner.size")
+                .description("Tasks per owner at full-list load")
+                .baseUnit("tasks")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
     private String currentUsername() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         return (auth == null) ? null : auth.getName();
     }
 
-    public List<TaskRequest> getTasks() {
+    @Transactional(readOnly = true)
+    public List<TaskView> getTasks() {
         String user = currentUsername();
-        log.info("Retrieving tasks for user {}", user);
-        return taskRepository.findByOwner(user);
+        log.debug("Retrieving tasks for user {}", user);
+        return taskListCache.getAll(user, () -> loadAll(user));
+    }
+
+    private List<TaskView> loadAll(String user) {
+        List<TaskView> tasks = taskRepository.findViewsByOwner(user);
+        // distribution of per-owner list sizes, sampled on every uncached full-list load
+        ownerSize.record(tasks.size());
+        return tasks;
+    }
+
+    /**
+     * Current ETag of the caller's task list. Read it before loading the tasks so a write
+     * committing in between can only make the tag older than the data, never newer.
+     */
+    public String getTaskListETag() {
+        return taskVersions.etag(currentUsername());
+    }
+
+    @Transactional(readOnly = true)
+    public TaskPage getTaskPage(TaskPageQuery query) {
+        String user = currentUsername();
+        int limit = clampLimit(query.getLimit());
+        log.debug("Retrieving task page for user {} with limit {}", user, limit);
+        TaskPageQuery normalized = query.toBuilder().limit(limit).build();
+        return taskListCache.getPage(user, normalized, () -> loadPage(user, normalized));
+    }
+
+    /**
+     * Tasks due from today up to (excluding) {@code before}, soonest first. A bounded range
+     * scan of the (owner, due_date, id) index, so the cost follows the page size rather than
+     * the owner's task count. Defaults to the next tasks.due.default-days days.
+     */
+    @Transactional(readOnly = true)
+    public TaskPage getDueTasks(LocalDate before, TaskCursor after, int limit) {
+        LocalDate today = LocalDate.now();
+        LocalDate until = before != null ? before : today.plusDays(properties.getDue().getDefaultDays() + 1L);
+        return getTaskPage(TaskPageQuery.builder()
+                .dueAfter(today.minusDays(1))
+                .dueBefore(until)
+                .after(after)
+                .limit(limit)
+                .build());
+    }
+
+    /**
+     * Tasks whose due date has passed, longest overdue first. Same index range as
+     * {@link #getDueTasks}, bounded above by today; undated tasks never match.
+     */
+    @Transactional(readOnly = true)
+    public TaskPage getOverdueTasks(TaskCursor after, int limit) {
+        return getTaskPage(TaskPageQuery.builder()
+                .dueBefore(LocalDate.now())
+                .after(after)
+                .limit(limit)
+                .build());
+    }
+
+    /**
+     * Title search through the in-memory index; only the ranked hits are read from the
+     * database, with one IN query. Deliberately not transactional: an owner's first search
+     * loads the index from the primary in its own transaction, then the hits are read in the
+     * repository's read-only one, so a search never holds two pooled connections.
+     */
+    public List<TaskView> searchTasks(String query, int limit) {
+        String user = currentUsername();
+        List<Long> ranked = searchIndex.search(user, query, clampLimit(limit));
+        log.debug("Search for user {} matched {} tasks", user, ranked.size());
+        if (ranked.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, TaskView> byId = taskRepository.findViewsByOwnerAndIdIn(user, ranked).stream()
+                .collect(Collectors.toMap(TaskView::id, Function.identity()));
+        return ranked.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private TaskPage loadPage(String user, TaskPageQuery query) {
+        int limit = query.getLimit();
+        // fetch one extra row to learn whether another page exists without counting
+        List<TaskView> rows = taskRepository.findPage(user, query.toBuilder().limit(limit + 1).build());
+        if (rows.size() <= limit) {
+            return TaskPage.builder().tasks(rows).build();
+        }
+        List<TaskView> page = rows.subList(0, limit);
+        return TaskPage.builder()
+                .tasks(page)
+                .nextCursor(TaskCursor.of(page.getLast()).encode())
+                .build();
+    }
+
+    private int clampLimit(int requested) {
+        TaskConfigurationProperties.Page page = properties.getPage();
+        if (requested <= 0) {
+            return page.getDefaultSize();
+        }
+        return Math.min(requested, page.getMaxSize());
     }
 
     @Transactional
-    public List<TaskRequest> createTask(TaskRequest task) {
+    public TaskView createTask(TaskRequest request) {
         String user = currentUsername();
-        log.info("Creating new task for user {} with title: {}", user, task.getTitle());
-        task.setOwner(user);
-        taskRepository.save(task);
-        return taskRepository.findByOwner(user);
+        log.debug("Creating new task for user {} with title: {}", user, request.getTitle());
+        Task task = Task.builder().title(request.getTitle()).dueDate(request.getDueDate()).owner(user).build();
+        TaskView saved = TaskView.of(taskRepository.save(task));
+        events.publishEvent(new TaskChangedEvent(user, TaskChangedEvent.Type.CREATED, saved));
+        return saved;
     }
 
+    /**
+     * Optimistic update: the row is read without a lock and written with
+     * {@code where id = ? and version = ?}. Without {@code ifMatch} the write is unconditional
+     * unless tasks.concurrency.require-if-match is set. A stale If-Match fails before the write with
+     * {@link TaskVersionConflictException}; a writer that commits in between makes the
+     * flush fail with an {@link org.springframework.dao.OptimisticLockingFailureException}.
+     */
     @Transactional
-    public List<TaskRequest> updateTasks(TaskRequest task, Long id) {
+    public TaskView updateTasks(TaskRequest request, Long id, String ifMatch) {
         String user = currentUsername();
-        log.info("Updating task id={} for user {}", id, user);
-        TaskRequest existing = taskRepository.findByIdAndOwner(id, user)
+        log.debug("Updating task id={} for user {}", id, user);
+        Task existing = taskRepository.findByIdAndOwner(id, user)
                 .orElseThrow(() -> new IllegalArgumentException("Task not found or not owned by user"));
+        checkIfMatch(existing, ifMatch);
         // update allowed fields
-        existing.setTitle(task.getTitle());
-        existing.setDueDate(task.getDueDate());
-        taskRepository.save(existing);
-        return taskRepository.findByOwner(user);
+        existing.setTitle(request.getTitle());
+        existing.setDueDate(request.getDueDate());
+        // flushed here so the version check runs now and the view carries the new version
+        TaskView saved = TaskView.of(taskRepository.saveAndFlush(existing));
+        events.publishEvent(new TaskChangedEvent(user, TaskChangedEvent.Type.UPDATED, saved));
+        return saved;
     }
 
+    /**
+     * Optimistic delete, checked the same way as {@link #updateTasks(TaskRequest, Long, String)}.
+     */
     @Transactional
-    public List<TaskRequest> deleteTask(Long id) {
+    public void deleteTask(Long id, String ifMatch) {
         String user = currentUsername();
-        log.info("Deleting task id={} for user {}", id, user);
-        TaskRequest existing = taskRepository.findByIdAndOwner(id, user)
+        log.debug("Deleting task id={} for user {}", id, user);
+        Task existing = taskRepository.findByIdAndOwner(id, user)
                 .orElseThrow(() -> new IllegalArgumentException("Task not found or not owned by user"));
+        checkIfMatch(existing, ifMatch);
         taskRepository.delete(existing);
-        return taskRepository.findByOwner(user);
+        taskRepository.flush();
+        events.publishEvent(new TaskChangedEvent(user, TaskChangedEvent.Type.DELETED, TaskView.of(existing)));
+    }
+
+    private void checkIfMatch(Task task, String ifMatch) {
+        if (ifMatch == null) {
+            if (properties.getConcurrency().isRequireIfMatch()) {
+                throw new IfMatchRequiredException();
+            }
+            return;
+        }
+        TaskView current = TaskView.of(task);
+        if (!current.matches(ifMatch)) {
+            throw new TaskVersionConflictException(current);
+        }
+    }
+
+    /**
+     * Applies a mixed list of operations in one transaction. Existing rows are loaded with a
+     * single IN query and all writes are flushed together at commit, so inserts, updates and
+     * deletes each go out as JDBC batches. Items that fail validation or ownership get their
+     * own error result and do not abort the rest of the batch.
+     */
+    @Transactional
+    public List<BatchTaskResult> applyBatch(List<BatchTaskOperation> operations) {
+        String user = currentUsername();
+        log.debug("Applying batch of {} task operations for user {}", operations.size(), user);
+
+        List<Long> ids = operations.stream()
+                .filter(op -> op.getOp() != BatchTaskOperation.Op.CREATE)
+                .map(BatchTaskOperation::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, Task> existing = ids.isEmpty() ? new HashMap<>()
+                : taskRepository.findByOwnerAndIdIn(user, ids).stream()
+                        .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        List<BatchTaskResult> results = new ArrayList<>(operations.size());
+        // entity behind each created or updated result, turned into a view once ids are assigned;
+        // keyed by identity because setting the task changes the result's equals/hashCode
+        Map<BatchTaskResult, Task> resultTasks = new IdentityHashMap<>();
+        List<Task> toInsert = new ArrayList<>();
+        List<Task> toDelete = new ArrayList<>();
+        List<PendingChange> changes = new ArrayList<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            BatchTaskOperation op = operations.get(i);
+            BatchTaskResult.BatchTaskResultBuilder result = BatchTaskResult.builder().index(i).op(op.getOp());
+            String invalid = validate(op);
+            if (invalid != null) {
+                results.add(result.status(400).error(invalid).build());
+                continue;
+            }
+            switch (op.getOp()) {
+                case CREATE -> {
+                    Task task = Task.builder().title(op.getTitle()).dueDate(op.getDueDate()).owner(user).build();
+                    toInsert.add(task);
+                    changes.add(new PendingChange(TaskChangedEvent.Type.CREATED, task));
+                    results.add(withTask(result.status(201).build(), task, resultTasks));
+                }
+                case UPDATE -> {
+                    Task task = existing.get(op.getId());
+                    if (task == null) {
+                        results.add(result.status(404).error("Task not found or not owned by user").build());
+                        continue;
+                    }
+                    if (isStale(op, task)) {
+                        results.add(result.status(412).error(staleVersion(task)).build());
+                        continue;
+                    }
+                    // managed entity, flushed as part of the update batch
+                    task.setTitle(op.getTitle());
+                    task.setDueDate(op.getDueDate());
+                    changes.add(new PendingChange(TaskChangedEvent.Type.UPDATED, task));
+                    results.add(withTask(result.status(200).build(), task, resultTasks));
+                }
+                case DELETE -> {
+                    Task task = existing.get(op.getId());
+                    if (task == null) {
+                        results.add(result.status(404).error("Task not found or not owned by user").build());
+                        continue;
+                    }
+                    if (isStale(op, task)) {
+                        results.add(result.status(412).error(staleVersion(task)).build());
+                        continue;
+                    }
+                    existing.remove(op.getId());
+                    toDelete.add(task);
+                    changes.add(new PendingChange(TaskChangedEvent.Type.DELETED, task));
+                    results.add(result.status(204).build());
+                }
+            }
+        }
+
+        taskRepository.saveAll(toInsert);
+        taskRepository.deleteAll(toDelete);
+        // versioned writes go out now, so results carry the new versions and a concurrent
+        // writer fails the batch here rather than at commit
+        taskRepository.flush();
+        resultTasks.forEach((result, task) -> result.setTask(TaskView.of(task)));
+        changes.forEach(change -> events.publishEvent(new TaskChangedEvent(user, change.type(), TaskView.of(change.task()))));
+        return results;
+    }
+
+    private static BatchTaskResult withTask(BatchTaskResult result, Task task, Map<BatchTaskResult, Task> resultTasks) {
+        resultTasks.put(result, task);
+        return result;
+    }
+
+    private static boolean isStale(BatchTaskOperation op, Task task) {
+        return op.getVersion() != null && !op.getVersion().equals(task.getVersion());
+    }
+
+    private static String staleVersion(Task task) {
+        return "Task has been modified, current version is " + task.getVersion();
+    }
+
+    // a batch write whose event is built after saveAll, when created tasks have their ids
+    private record PendingChange(TaskChangedEvent.Type type, Task task) {
+    }
+
+    private static String validate(BatchTaskOperation op) {
+        if (op.getOp() != BatchTaskOperation.Op.CREATE && op.getId() == null) {
+            return "id is required";
+        }
+        if (op.getOp() != BatchTaskOperation.Op.DELETE) {
+            if (op.getTitle() == null || op.getTitle().isBlank()) {
+                return "title must not be blank";
+            }
+            if (op.getDueDate() != null && !op.getDueDate().isAfter(LocalDate.now())) {
+                return "dueDate must be a future date";
+            }
+        }
+        return null;
     }
 }
@@ -0,0 +1,54 @@
+package com.pollinate.task.service;
+
+import com.pollinate.task.model.TaskChangedEvent;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory per-owner version of the task list, used as the ETag of GET /tasks. Every
+ * committed create, update or delete bumps the owner's counter, so a matching
+ * If-None-Match can be answered without touching the database. Only owners that have
+ * written since startup are held in the map; everyone else is implicitly at version 0.
+ */
+@Component
+public class TaskVersionRegistry {
+
+    // distinguishes this process's versions from those handed out before a restart
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public long current(String owner) {
+        AtomicLong version = versions.get(owner);
+        return version == null ? 0 : version.get();
+    }
+
+    public long bump(String owner) {
+        return versions.computeIfAbsent(owner, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * The owner's hash is part of the tag so two users at the same version never share one
+     * in a browser cache.
+     */
+    public String etag(String owner) {
+        return epoch + "-" + Integer.toHexString(owner == null ? 0 : owner.hashCode()) + "-" + current(owner);
+    }
+
+    /**
+     * Bumped only after commit, and after TaskListCache and RecentWriters have handled the
+     * same event: a reader that sees the old version may already get the new rows (costing
+     * one extra refetch later), but never the reverse, which would pin stale data behind a
+     * current tag.
+     */
+    @Order(TaskChangedEvent.VERSION_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        bump(event.getOwner());
+    }
+}
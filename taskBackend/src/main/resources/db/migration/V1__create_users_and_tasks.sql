@@ -0,0 +1,24 @@
+-- Portable between H2 (file and PostgreSQL mode) and PostgreSQL.
+
+create table users (
+    id bigint generated by default as identity primary key,
+    username varchar(255) not null,
+    password varchar(255) not null,
+    constraint uk_users_username unique (username)
+);
+
+-- increment must match the allocationSize of TaskRequest's pooled sequence generator
+create sequence tasks_seq start with 1 increment by 50;
+
+create table tasks (
+    id bigint primary key,
+    title varchar(255) not null,
+    due_date date,
+    owner varchar(255) not null
+);
+
+-- findByOwner, findByIdAndOwner and the keyset page (owner, due_date nulls last, id)
+create index idx_tasks_owner_due_date_id on tasks (owner, due_date nulls last, id);
+
+-- title prefix filter within an owner
+create index idx_tasks_owner_title on tasks (owner, title);
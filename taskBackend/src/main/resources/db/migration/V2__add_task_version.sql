@@ -0,0 +1,2 @@
+-- optimistic locking: Task's @Version, checked against If-Match on PUT and DELETE /tasks/{id}
+alter table tasks add column version bigint default 0 not null;
@@ -0,0 +1,6 @@
+-- (owner, title) and (owner, due_date nulls last, id) both match "owner = ?", and H2 only
+-- credits an index with the ORDER BY when the order starts at its first column, so the two
+-- tie and the page queries could end up sorting every row of the owner. With one owner
+-- index left the page, keyset and due-date queries always range-scan it; the title prefix
+-- filter is applied within that same owner range.
+drop index idx_tasks_owner_title;
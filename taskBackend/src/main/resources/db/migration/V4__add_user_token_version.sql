@@ -0,0 +1,2 @@
+-- revoke-all: tokens carry the version they were issued at, see UserVersionRegistry
+alter table users add column token_version integer default 0 not null;
@@ -0,0 +1,101 @@
+package com.pollinate.task;
+
+import com.pollinate.task.model.TaskPageQuery;
+import com.pollinate.task.model.TaskRequest;
+import com.pollinate.task.security.JwtUtil;
+import com.pollinate.task.service.TaskService;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the request-path code we own on virtual threads and fails if any of it parks while
+ * holding a monitor, which would pin the carrier thread. Pinning that originates inside
+ * third-party code (for example the H2 engine) is not attributed to us.
+ */
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+public class VirtualThreadPinningTests {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    public void ownedRequestPaths_doNotPinCarrierThreads() throws Exception {
+        List<String> pinnedInOwnCode = new CopyOnWriteArrayList<>();
+
+        try (RecordingStream stream = new RecordingStream()) {
+            stream.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            stream.onEvent(PINNED_EVENT, event -> {
+                RecordedStackTrace stackTrace = event.getStackTrace();
+                if (stackTrace != null && pinnedInOwnCode(stackTrace)) {
+                    pinnedInOwnCode.add(stackTrace.toString());
+                }
+            });
+            stream.startAsync();
+
+            try (ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> requests = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    String user = "vt-user-" + (i % 20);
+                    requests.add(virtualThreads.submit(() -> requestPath(user)));
+                }
+                // a request path that throws has not been exercised; fail instead of passing vacuously
+                for (Future<?> request : requests) {
+                    request.get();
+                }
+            }
+            // stop() flushes and delivers every event recorded so far
+            stream.stop();
+        }
+
+        assertThat(pinnedInOwnCode).isEmpty();
+    }
+
+    private void requestPath(String user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, "N/A"));
+        try {
+            String token = jwtUtil.generateToken(user);
+            jwtUtil.verify(token);
+            taskService.createTask(TaskRequest.builder().title("Task").dueDate(LocalDate.now().plusDays(1)).build());
+            taskService.getTaskPage(TaskPageQuery.builder().limit(10).build());
+            taskService.getTasks();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * The innermost non-JDK frame tells whose code was running when the thread parked.
+     */
+    private static boolean pinnedInOwnCode(RecordedStackTrace stackTrace) {
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.")) {
+                continue;
+            }
+            return type.startsWith("com.pollinate.");
+        }
+        return false;
+    }
+}
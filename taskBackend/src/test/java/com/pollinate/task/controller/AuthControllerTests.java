@@ -4,9 +4,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pollinate.task.model.AuthRequest;
 import com.pollinate.task.service.AuthService;
 import com.pollinate.task.configuration.AppConfigurationProperties;
+import com.pollinate.task.exception.ServerBusyException;
+import com.pollinate.task.exception.UsernameTakenException;
 import com.pollinate.task.security.JwtUtil;
+import com.pollinate.task.security.PasswordHashingExecutor;
+import com.pollinate.task.security.RateLimitFilter;
+import com.pollinate.task.security.TokenDenylist;
+import com.pollinate.task.security.UserVersionRegistry;
 import com.pollinate.task.service.CustomUserDetailsService;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,12 +29,20 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -57,6 +72,18 @@ public class AuthControllerTests {
     @MockitoBean
     private AppConfigurationProperties properties;
 
+    @MockitoBean
+    private PasswordHashingExecutor passwordHashing;
+
+    @MockitoBean
+    private UserVersionRegistry userVersions;
+
+    @MockitoBean
+    private RateLimitFilter rateLimitFilter;
+
+    @MockitoBean
+    private TokenDenylist denylist;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -64,11 +91,25 @@ public class AuthControllerTests {
     private final String password = "secret";
     private final String authJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
 
+    @BeforeEach
+    public void setup() {
+        // run the password work inline; failures still surface through the returned future
+        when(passwordHashing.submit(any(), any())).thenAnswer(inv ->
+                CompletableFuture.supplyAsync((Supplier<?>) inv.getArgument(1), Runnable::run));
+    }
+
+    private ResultActions performAsync(RequestBuilder builder) throws Exception {
+        MvcResult started = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+
     @Test
     public void registerUser_success() throws Exception {
-        when(authService.existsByUsername(username)).thenReturn(false);
+        when(authService.isKnownUsername(username)).thenReturn(false);
 
-        mockMvc.perform(post("/register")
+        performAsync(post("/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(authJson))
                 .andExpect(status().isCreated())
@@ -81,15 +122,15 @@ public class AuthControllerTests {
         assert username.equals(sent.getUsername());
         assert password.equals(sent.getPassword());
 
-        verify(authService, times(1)).existsByUsername(username);
+        verify(authService, times(1)).isKnownUsername(username);
     }
 
     @Test
     public void registerUser_conflict_usernameTaken() throws Exception {
-        // Given: username exists
-        when(authService.existsByUsername(username)).thenReturn(true);
+        // Given: username known to be taken
+        when(authService.isKnownUsername(username)).thenReturn(true);
 
-        mockMvc.perform(post("/register")
+        performAsync(post("/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(authJson))
                 .andExpect(status().isConflict())
@@ -98,7 +139,22 @@ public class AuthControllerTests {
 
         // Then: saveUser NOT called
         verify(authService, never()).saveUser(any(AuthRequest.class));
-        verify(authService, times(1)).existsByUsername(username);
+        verify(authService, times(1)).isKnownUsername(username);
+    }
+
+    @Test
+    public void registerUser_insertHitsUniqueConstraint_returns409() throws Exception {
+        // Given: not known locally, but taken (e.g. a concurrent registration won)
+        when(authService.isKnownUsername(username)).thenReturn(false);
+        when(authService.saveUser(any(AuthRequest.class))).thenThrow(new UsernameTakenException(username));
+
+        performAsync(post("/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(authJson))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.response").value(containsString("already taken")));
+
+        verify(authService, times(1)).saveUser(any(AuthRequest.class));
     }
 
     @Test
@@ -110,11 +166,11 @@ public class AuthControllerTests {
 
         // Given JWT creation and cookie config
         String token = "jwt-token";
-        when(jwtUtils.generateToken(username)).thenReturn(token);
+        when(jwtUtils.generateToken(eq(username), any())).thenReturn(token);
         when(properties.getName()).thenReturn("AUTH");
         when(properties.getExpiration()).thenReturn(3600);
 
-        mockMvc.perform(post("/login")
+        performAsync(post("/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(authJson))
                 .andExpect(status().isOk())
@@ -129,7 +185,7 @@ public class AuthControllerTests {
 
         // Interactions
         verify(authenticationManager, times(1)).authenticate(any(Authentication.class));
-        verify(jwtUtils, times(1)).generateToken(username);
+        verify(jwtUtils, times(1)).generateToken(eq(username), any());
         verify(properties, times(1)).getName();
         verify(properties, times(1)).getExpiration();
     }
@@ -140,7 +196,7 @@ public class AuthControllerTests {
         when(authenticationManager.authenticate(any(Authentication.class)))
                 .thenThrow(new org.springframework.security.core.AuthenticationException("Bad credentials") {});
 
-        mockMvc.perform(post("/login")
+        performAsync(post("/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(authJson))
                 .andExpect(status().isUnauthorized())
@@ -148,13 +204,13 @@ public class AuthControllerTests {
                 .andExpect(jsonPath("$.response").value(containsString("Authentication failed")));
 
         // Should NOT set cookie
-        mockMvc.perform(post("/login")
+        performAsync(post("/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(authJson))
                 .andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE));
 
         verify(authenticationManager, atLeastOnce()).authenticate(any(Authentication.class));
-        verify(jwtUtils, never()).generateToken(anyString());
+        verify(jwtUtils, never()).generateToken(anyString(), any());
     }
 
     @Test
@@ -163,7 +219,7 @@ public class AuthControllerTests {
         when(authenticationManager.authenticate(any(Authentication.class)))
                 .thenThrow(new RuntimeException("Boom"));
 
-        mockMvc.perform(post("/login")
+        performAsync(post("/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(authJson))
                 .andExpect(status().isInternalServerError())
@@ -171,12 +227,42 @@ public class AuthControllerTests {
                 .andExpect(jsonPath("$.response").value(containsString("Internal error")));
 
         // Should NOT set cookie
+        performAsync(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(authJson))
+                .andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE));
+
+        verify(jwtUtils, never()).generateToken(anyString(), any());
+    }
+
+    @Test
+    public void login_passwordPoolSaturated_returns503WithRetryAfter() throws Exception {
+        doThrow(new ServerBusyException("Too many concurrent authentication requests", Duration.ofSeconds(2)))
+                .when(passwordHashing).submit(any(), any());
+
         mockMvc.perform(post("/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(authJson))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
                 .andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE));
 
-        verify(jwtUtils, never()).generateToken(anyString());
+        verify(authenticationManager, never()).authenticate(any(Authentication.class));
+    }
+
+    @Test
+    public void registerUser_passwordPoolSaturated_returns503() throws Exception {
+        when(authService.isKnownUsername(username)).thenReturn(false);
+        doThrow(new ServerBusyException("Too many concurrent authentication requests", Duration.ofSeconds(1)))
+                .when(passwordHashing).submit(any(), any());
+
+        mockMvc.perform(post("/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(authJson))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+
+        verify(authService, never()).saveUser(any(AuthRequest.class));
     }
 
     @Test
@@ -189,6 +275,21 @@ public class AuthControllerTests {
                 .andExpect(status().isBadRequest());
 
         verify(authService, never()).saveUser(any(AuthRequest.class));
-        verify(authService, never()).existsByUsername(anyString());
+        verify(authService, never()).isKnownUsername(anyString());
+    }
+
+    @Test
+    public void registerUser_usernameLongerThanColumn_returns400() throws Exception {
+        String tooLong = objectMapper.writeValueAsString(AuthRequest.builder()
+                .username("a".repeat(256))
+                .password(password)
+                .build());
+
+        mockMvc.perform(post("/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(tooLong))
+                .andExpect(status().isBadRequest());
+
+        verify(authService, never()).saveUser(any(AuthRequest.class));
     }
 }
@@ -1,9 +1,23 @@
 package com.pollinate.task.controller;
 
+import com.pollinate.task.exception.IfMatchRequiredException;
+import com.pollinate.task.exception.TaskVersionConflictException;
+import com.pollinate.task.model.BatchTaskOperation;
+import com.pollinate.task.model.BatchTaskResult;
+import com.pollinate.task.model.Task;
+import com.pollinate.task.model.TaskCursor;
+import com.pollinate.task.model.TaskPage;
+import com.pollinate.task.model.TaskPageQuery;
 import com.pollinate.task.model.TaskRequest;
+import com.pollinate.task.model.TaskView;
 import com.pollinate.task.security.AuthTokenFilter;
 import com.pollinate.task.security.JwtUtil;
+import com.pollinate.task.security.RateLimitFilter;
+import com.pollinate.task.model.TaskExportFormat;
+import com.pollinate.task.service.TaskEventBroadcaster;
+import com.pollinate.task.service.TaskExporter;
 import com.pollinate.task.service.TaskService;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -12,15 +26,22 @@ import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfi
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,12 +57,21 @@ public class TaskControllerTests {
     @MockitoBean
     private AuthTokenFilter authTokenFilter;
 
+    @MockitoBean
+    private RateLimitFilter rateLimitFilter;
+
     @MockitoBean
     private JwtUtil utils;
 
     @MockitoBean
     private TaskService service;
 
+    @MockitoBean
+    private TaskExporter exporter;
+
+    @MockitoBean
+    private TaskEventBroadcaster broadcaster;
+
     private LocalDate tomorrow = LocalDate.now().plusDays(1);
 
     private String taskTitle = "Task one";
@@ -51,16 +81,17 @@ public class TaskControllerTests {
     @BeforeEach
     public void setup() {
         taskJson = String.format("{\"title\": \"Task one\", \"dueDate\": \"%s\"}", tomorrow);
+        when(service.getTaskListETag()).thenReturn("e1-5c1a-3");
     }
 
     @Test
     public void getsAllTasks_success() throws Exception {
 
-        List<TaskRequest> tasks = List.of(
-                TaskRequest.builder().title("Task A").dueDate(tomorrow).build(),
-                TaskRequest.builder().title("Task B").dueDate(null).build()
+        List<TaskView> tasks = List.of(
+                TaskView.builder().title("Task A").dueDate(tomorrow).build(),
+                TaskView.builder().title("Task B").dueDate(null).build()
         );
-        when(service.getTasks()).thenReturn(tasks);
+        when(service.getTaskPage(any(TaskPageQuery.class))).thenReturn(TaskPage.builder().tasks(tasks).build());
 
         mockMvc.perform(get("/tasks"))
                 .andExpect(status().isOk())
@@ -69,19 +100,52 @@ public class TaskControllerTests {
                 .andExpect(jsonPath("$.tasks[0].title").value("Task A"))
                 .andExpect(jsonPath("$.tasks[0].dueDate").value(tomorrow.toString()))
                 .andExpect(jsonPath("$.tasks[1].title").value("Task B"))
-                .andExpect(jsonPath("$.tasks[1].dueDate").doesNotExist()); // null is often omitted or serialized as null depending on ObjectMapper config
+                .andExpect(jsonPath("$.tasks[1].dueDate").doesNotExist()) // null is often omitted or serialized as null depending on ObjectMapper config
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
 
-        verify(service, times(1)).getTasks();
+        verify(service, times(1)).getTaskPage(any(TaskPageQuery.class));
+    }
+
+    @Test
+    public void getTasks_withCursorAndFilters_passesQueryAndReturnsNextCursor() throws Exception {
+        TaskCursor cursor = new TaskCursor(tomorrow, 5L);
+        String next = new TaskCursor(tomorrow, 9L).encode();
+        List<TaskView> tasks = List.of(TaskView.builder().id(9L).title("Task C").dueDate(tomorrow).build());
+        when(service.getTaskPage(any(TaskPageQuery.class))).thenReturn(TaskPage.builder().tasks(tasks).nextCursor(next).build());
+
+        mockMvc.perform(get("/tasks")
+                        .param("cursor", cursor.encode())
+                        .param("limit", "1")
+                        .param("dueBefore", tomorrow.plusDays(7).toString())
+                        .param("title", "Task"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor").value(next));
+
+        ArgumentCaptor<TaskPageQuery> captor = ArgumentCaptor.forClass(TaskPageQuery.class);
+        verify(service, times(1)).getTaskPage(captor.capture());
+        TaskPageQuery sent = captor.getValue();
+        assert sent.getAfter().equals(cursor);
+        assert sent.getLimit() == 1;
+        assert sent.getDueBefore().equals(tomorrow.plusDays(7));
+        assert sent.getDueAfter() == null;
+        assert sent.getTitlePrefix().equals("Task");
+    }
+
+    @Test
+    public void getTasks_invalidCursor_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/tasks").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).getTaskPage(any(TaskPageQuery.class));
     }
 
     @Test
     public void createNewTask_success() throws Exception {
 
-        List<TaskRequest> tasks = List.of(
-                TaskRequest.builder().title(taskTitle).dueDate(tomorrow).build()
-        );
+        TaskView created = TaskView.builder().id(1L).title(taskTitle).dueDate(tomorrow).build();
 
-        when(service.createTask(any(TaskRequest.class))).thenReturn(tasks);
+        when(service.createTask(any(TaskRequest.class))).thenReturn(created);
 
         // When & Then
         mockMvc.perform(post("/tasks")
@@ -91,35 +155,77 @@ public class TaskControllerTests {
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.tasks", hasSize(1)))
                 .andExpect(jsonPath("$.tasks[0].title").value(taskTitle))
-                .andExpect(jsonPath("$.tasks[0].dueDate").value(tomorrow.toString()));
+                .andExpect(jsonPath("$.tasks[0].dueDate").value(tomorrow.toString()))
+                // the response view carries no owner; it is always the caller
+                .andExpect(jsonPath("$.tasks[0].owner").doesNotExist());
 
 
         ArgumentCaptor<TaskRequest> captor = ArgumentCaptor.forClass(TaskRequest.class);
         verify(service, times(1)).createTask(captor.capture());
         TaskRequest sent = captor.getValue();
         assert sent.getTitle().equals(taskTitle);
+
+        // only the created task is returned, the owner list is not re-read
+        verify(service, never()).getTasks();
+    }
+
+    @Test
+    public void createNewTask_includeAll_returnsOwnerList() throws Exception {
+        TaskView created = TaskView.builder().id(2L).title(taskTitle).dueDate(tomorrow).build();
+        List<TaskView> all = List.of(
+                TaskView.builder().id(1L).title("Existing").dueDate(tomorrow).build(),
+                created
+        );
+        when(service.createTask(any(TaskRequest.class))).thenReturn(created);
+        when(service.getTasks()).thenReturn(all);
+
+        mockMvc.perform(post("/tasks")
+                        .param("includeAll", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(taskJson))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.tasks", hasSize(2)))
+                .andExpect(jsonPath("$.tasks[1].title").value(taskTitle));
+
+        verify(service, times(1)).getTasks();
+    }
+
+    @Test
+    public void createNewTask_preferMinimal_returnsNoContent() throws Exception {
+        when(service.createTask(any(TaskRequest.class)))
+                .thenReturn(TaskView.builder().id(1L).title(taskTitle).dueDate(tomorrow).build());
+
+        mockMvc.perform(post("/tasks")
+                        .header("Prefer", "return=minimal")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(taskJson))
+                .andExpect(status().isNoContent())
+                .andExpect(content().string(emptyString()));
+
+        verify(service, times(1)).createTask(any(TaskRequest.class));
+        verify(service, never()).getTasks();
     }
 
     @Test
     public void updateTask_success() throws Exception {
         Long id = 1L;
-        List<TaskRequest> updatedTasks = List.of(
-                TaskRequest.builder().title(taskTitle).dueDate(tomorrow).build()
-        );
+        TaskView updated = TaskView.builder().id(id).title(taskTitle).dueDate(tomorrow).version(1L).build();
 
-        when(service.updateTasks(any(TaskRequest.class), eq(id))).thenReturn(updatedTasks);
+        when(service.updateTasks(any(TaskRequest.class), eq(id), isNull())).thenReturn(updated);
 
 
         mockMvc.perform(put("/tasks/{id}", id)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(taskJson))
                 .andExpect(status().isAccepted())
+                .andExpect(header().string("ETag", "\"1-1\""))
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.tasks", hasSize(1)))
-                .andExpect(jsonPath("$.tasks[0].title").value(taskTitle));
+                .andExpect(jsonPath("$.tasks[0].title").value(taskTitle))
+                .andExpect(jsonPath("$.tasks[0].version").value(1));
 
         ArgumentCaptor<TaskRequest> captor = ArgumentCaptor.forClass(TaskRequest.class);
-        verify(service, times(1)).updateTasks(captor.capture(), eq(id));
+        verify(service, times(1)).updateTasks(captor.capture(), eq(id), isNull());
         TaskRequest sent = captor.getValue();
         assert sent.getTitle().equals(taskTitle);
     }
@@ -134,19 +240,83 @@ public class TaskControllerTests {
                         .content(invalidJason))
                 .andExpect(status().isBadRequest());
 
-        verify(service, never()).updateTasks(any(TaskRequest.class), anyLong());
+        verify(service, never()).updateTasks(any(TaskRequest.class), anyLong(), any());
+    }
+
+    @Test
+    public void updateTask_passesIfMatchToTheService() throws Exception {
+        Long id = 1L;
+        TaskView updated = TaskView.builder().id(id).title(taskTitle).dueDate(tomorrow).version(4L).build();
+        when(service.updateTasks(any(TaskRequest.class), eq(id), eq("\"1-3\""))).thenReturn(updated);
+
+        mockMvc.perform(put("/tasks/{id}", id)
+                        .header("If-Match", "\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(taskJson))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("ETag", "\"1-4\""));
+    }
+
+    @Test
+    public void updateTask_staleIfMatch_returns412WithCurrentVersion() throws Exception {
+        Long id = 1L;
+        TaskView current = TaskView.builder().id(id).title("Edited elsewhere").dueDate(tomorrow).version(5L).build();
+        when(service.updateTasks(any(TaskRequest.class), eq(id), eq("\"1-3\"")))
+                .thenThrow(new TaskVersionConflictException(current));
+
+        mockMvc.perform(put("/tasks/{id}", id)
+                        .header("If-Match", "\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(taskJson))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string("ETag", "\"1-5\""))
+                .andExpect(jsonPath("$.tasks[0].title").value("Edited elsewhere"));
+    }
+
+    @Test
+    public void updateTask_concurrentCommit_returns412() throws Exception {
+        Long id = 1L;
+        when(service.updateTasks(any(TaskRequest.class), eq(id), any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Task.class, id));
+
+        mockMvc.perform(put("/tasks/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(taskJson))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    public void updateTask_withoutIfMatch_whenRequired_returns428() throws Exception {
+        Long id = 1L;
+        when(service.updateTasks(any(TaskRequest.class), eq(id), isNull())).thenThrow(new IfMatchRequiredException());
+
+        mockMvc.perform(put("/tasks/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(taskJson))
+                .andExpect(status().isPreconditionRequired());
     }
 
     @Test
     public void deleteTask() throws Exception {
         Long id = 42L;
-        when(service.deleteTask(id)).thenReturn(List.of());
 
         mockMvc.perform(delete("/tasks/{id}", id))
                 .andExpect(status().isNoContent())
-                .andExpect(content().string(isEmptyString()));
+                .andExpect(content().string(emptyString()));
 
-        verify(service, times(1)).deleteTask(id);
+        verify(service, times(1)).deleteTask(id, null);
+        verify(service, never()).getTasks();
+    }
+
+    @Test
+    public void deleteTask_staleIfMatch_returns412() throws Exception {
+        Long id = 42L;
+        TaskView current = TaskView.builder().id(id).title("Edited elsewhere").version(2L).build();
+        doThrow(new TaskVersionConflictException(current)).when(service).deleteTask(id, "\"42-1\"");
+
+        mockMvc.perform(delete("/tasks/{id}", id).header("If-Match", "\"42-1\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string("ETag", "\"42-2\""));
     }
 
     @Test
@@ -162,4 +332,172 @@ public class TaskControllerTests {
 
     }
 
+
+    @Test
+    public void batch_returnsPerItemResults() throws Exception {
+        String batchJson = String.format("{\"operations\": ["
+                + "{\"op\": \"CREATE\", \"title\": \"%s\", \"dueDate\": \"%s\"},"
+                + "{\"op\": \"DELETE\", \"id\": 5}]}", taskTitle, tomorrow);
+        when(service.applyBatch(anyList())).thenReturn(List.of(
+                BatchTaskResult.builder().index(0).op(BatchTaskOperation.Op.CREATE).status(201)
+                        .task(TaskView.builder().id(1L).title(taskTitle).dueDate(tomorrow).build()).build(),
+                BatchTaskResult.builder().index(1).op(BatchTaskOperation.Op.DELETE).status(404)
+                        .error("Task not found or not owned by user").build()
+        ));
+
+        mockMvc.perform(post("/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batchJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results", hasSize(2)))
+                .andExpect(jsonPath("$.results[0].status").value(201))
+                .andExpect(jsonPath("$.results[0].task.title").value(taskTitle))
+                .andExpect(jsonPath("$.results[1].status").value(404));
+
+        verify(service, times(1)).applyBatch(argThat(ops -> ops.size() == 2));
+    }
+
+    @Test
+    public void batch_empty_returnsBadRequest() throws Exception {
+        mockMvc.perform(post("/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\": []}"))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).applyBatch(anyList());
+    }
+
+    @Test
+    public void batch_operationWithoutOp_returnsBadRequest() throws Exception {
+        mockMvc.perform(post("/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\": [{\"id\": 5}]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).applyBatch(anyList());
+    }
+
+    @Test
+    public void export_csv_streamsExporterOutputAsAttachment() throws Exception {
+        when(exporter.export(any(), eq(TaskExportFormat.CSV), any(OutputStream.class))).thenAnswer(inv -> {
+            OutputStream out = inv.getArgument(2);
+            out.write("id,title,dueDate\r\n1,Task A,2030-01-01\r\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult started = mockMvc.perform(get("/tasks/export").param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", Matchers.startsWith("text/csv")))
+                .andExpect(header().string("Content-Disposition", containsString("tasks.csv")))
+                .andExpect(content().string(containsString("1,Task A,2030-01-01")));
+    }
+
+    @Test
+    public void export_unknownFormat_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/tasks/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(exporter);
+    }
+
+    @Test
+    public void getTasks_sendsETag() throws Exception {
+        when(service.getTaskPage(any(TaskPageQuery.class))).thenReturn(TaskPage.builder().tasks(List.of()).build());
+
+        mockMvc.perform(get("/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"e1-5c1a-3\""))
+                .andExpect(header().string("Cache-Control", containsString("no-cache")));
+    }
+
+    @Test
+    public void getTasks_matchingIfNoneMatch_returns304WithoutLoading() throws Exception {
+        mockMvc.perform(get("/tasks").header("If-None-Match", "\"e1-5c1a-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"e1-5c1a-3\""))
+                .andExpect(content().string(""));
+
+        verify(service, never()).getTaskPage(any(TaskPageQuery.class));
+    }
+
+    @Test
+    public void getTasks_staleIfNoneMatch_returnsBody() throws Exception {
+        when(service.getTaskPage(any(TaskPageQuery.class))).thenReturn(TaskPage.builder().tasks(List.of()).build());
+
+        mockMvc.perform(get("/tasks").header("If-None-Match", "\"e1-5c1a-2\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(0)));
+    }
+
+    @Test
+    public void stream_subscribesWithLastEventId() throws Exception {
+        when(broadcaster.subscribe(any(), eq("e1-42"))).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/tasks/stream")
+                        .header("Last-Event-ID", "e1-42")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(broadcaster, times(1)).subscribe(any(), eq("e1-42"));
+    }
+
+    @Test
+    public void search_returnsRankedTasks() throws Exception {
+        when(service.searchTasks("buy milk", 0)).thenReturn(List.of(
+                TaskView.builder().id(3L).title("Buy milk").dueDate(tomorrow).build()));
+
+        mockMvc.perform(get("/tasks/search").param("q", "buy milk"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(1)))
+                .andExpect(jsonPath("$.tasks[0].id").value(3));
+    }
+
+    @Test
+    public void due_passesBeforeDateAndCursor() throws Exception {
+        TaskCursor cursor = new TaskCursor(tomorrow, 5L);
+        String next = new TaskCursor(tomorrow, 6L).encode();
+        when(service.getDueTasks(any(), any(), anyInt())).thenReturn(TaskPage.builder()
+                .tasks(List.of(TaskView.builder().id(6L).title("Task D").dueDate(tomorrow).build()))
+                .nextCursor(next)
+                .build());
+
+        mockMvc.perform(get("/tasks/due")
+                        .param("before", tomorrow.plusDays(3).toString())
+                        .param("cursor", cursor.encode())
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor").value(next));
+
+        verify(service, times(1)).getDueTasks(tomorrow.plusDays(3), cursor, 1);
+    }
+
+    @Test
+    public void due_withoutBefore_leavesDefaultToService() throws Exception {
+        when(service.getDueTasks(any(), any(), anyInt())).thenReturn(TaskPage.builder().tasks(List.of()).build());
+
+        mockMvc.perform(get("/tasks/due"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(0)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        verify(service, times(1)).getDueTasks(null, null, 0);
+    }
+
+    @Test
+    public void overdue_returnsServicePage() throws Exception {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        when(service.getOverdueTasks(null, 10)).thenReturn(TaskPage.builder()
+                .tasks(List.of(TaskView.builder().id(2L).title("Late").dueDate(yesterday).build()))
+                .build());
+
+        mockMvc.perform(get("/tasks/overdue").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(1)))
+                .andExpect(jsonPath("$.tasks[0].title").value("Late"));
+    }
 }
@@ -0,0 +1,129 @@
+package com.pollinate.task.datasource;
+
+import com.pollinate.task.model.AuthRequest;
+import com.pollinate.task.model.TaskRequest;
+import com.pollinate.task.model.TaskView;
+import com.pollinate.task.service.AuthService;
+import com.pollinate.task.service.CustomUserDetailsService;
+import com.pollinate.task.service.TaskService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two in-memory H2 databases stand in for primary and replica. Nothing replicates between
+ * them, so where a row is visible shows which one a read went to.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "replica.enabled=true",
+        "replica.url=" + ReplicaRoutingTests.REPLICA_URL,
+        "replica.username=sa",
+        "replica.password=password",
+        "replica.read-your-writes=1m",
+        "tasks.cache.enabled=false",
+        "tasks.search.warm-on-startup=false"
+})
+public class ReplicaRoutingTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    public void setup() {
+        // a real replica gets its schema from the primary; here we migrate it directly
+        DataSource replicaAdmin = new DriverManagerDataSource(REPLICA_URL, "sa", "password");
+        Flyway.configure().dataSource(replicaAdmin).locations("classpath:db/migration").load().migrate();
+        replica = new JdbcTemplate(replicaAdmin);
+        primary = new JdbcTemplate(primaryDataSource);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        for (JdbcTemplate db : new JdbcTemplate[] {primary, replica}) {
+            db.update("delete from tasks");
+            db.update("delete from users");
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticateAs(String user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, "N/A"));
+    }
+
+    private void insertReplicaTask(long id, String title, String owner) {
+        replica.update("insert into tasks (id, title, due_date, owner) values (?, ?, ?, ?)", id, title, null, owner);
+    }
+
+    @Test
+    public void readOnlyTransactions_readFromTheReplica() {
+        insertReplicaTask(1_000_001L, "Only on replica", "reader");
+        authenticateAs("reader");
+
+        assertThat(taskService.getTasks()).extracting(TaskView::title).containsExactly("Only on replica");
+        // the search index is always built from the primary
+        assertThat(taskService.searchTasks("replica", 10)).isEmpty();
+    }
+
+    @Test
+    public void writes_goToThePrimary_andTheWriterReadsItsOwnWrites() {
+        insertReplicaTask(1_000_002L, "Stale", "writer");
+        insertReplicaTask(1_000_003L, "Someone else's", "bystander");
+        authenticateAs("writer");
+
+        taskService.createTask(TaskRequest.builder().title("Fresh").dueDate(LocalDate.now().plusDays(1)).build());
+
+        assertThat(primary.queryForObject("select count(*) from tasks where owner = 'writer'", Integer.class)).isEqualTo(1);
+        assertThat(replica.queryForObject("select count(*) from tasks where title = 'Fresh'", Integer.class)).isZero();
+        // within the read-your-writes window the writer's reads go to the primary
+        assertThat(taskService.getTasks()).extracting(TaskView::title).containsExactly("Fresh");
+
+        // everyone else keeps reading the replica
+        authenticateAs("bystander");
+        assertThat(taskService.getTasks()).extracting(TaskView::title).containsExactly("Someone else's");
+    }
+
+    @Test
+    public void userLookups_readTheReplicaUnlessTheUserJustRegistered() {
+        replica.update("insert into users (username, password) values (?, ?)", "replica-only", "hash");
+
+        assertThat(authService.existsByUsername("replica-only")).isTrue();
+        assertThat(userDetailsService.loadUserByUsername("replica-only").getUsername()).isEqualTo("replica-only");
+
+        authService.saveUser(AuthRequest.builder().username("newcomer").password("secret").build());
+
+        // the replica has not seen the new user, the lookups still find it
+        assertThat(replica.queryForObject("select count(*) from users where username = 'newcomer'", Integer.class)).isZero();
+        assertThat(authService.existsByUsername("newcomer")).isTrue();
+        assertThat(userDetailsService.loadUserByUsername("newcomer").getUsername()).isEqualTo("newcomer");
+    }
+}
@@ -0,0 +1,31 @@
+package com.pollinate.task.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogSamplerTests {
+
+    @Test
+    public void sample_letsOneEventThroughPerInterval() {
+        LogSampler sampler = new LogSampler(Duration.ofHours(1));
+
+        assertThat(sampler.sample()).isZero();
+        assertThat(sampler.sample()).isEqualTo(-1);
+        assertThat(sampler.sample()).isEqualTo(-1);
+    }
+
+    @Test
+    public void sample_reportsSuppressedCountOnNextPermit() throws Exception {
+        LogSampler sampler = new LogSampler(Duration.ofMillis(20));
+
+        sampler.sample();
+        sampler.sample();
+        sampler.sample();
+        Thread.sleep(40);
+
+        assertThat(sampler.sample()).isEqualTo(2);
+    }
+}
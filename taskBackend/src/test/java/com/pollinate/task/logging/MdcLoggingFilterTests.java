@@ -0,0 +1,52 @@
+package com.pollinate.task.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MdcLoggingFilterTests {
+
+    private final MdcLoggingFilter filter = new MdcLoggingFilter();
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void doFilter_putsRequestIdAndUserInMdcForTheRequestOnly() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("alice", "N/A"));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+        request.addHeader(MdcLoggingFilter.REQUEST_ID_HEADER, "abc-123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Map<String, String> seen = new HashMap<>();
+
+        filter.doFilter(request, response, (req, res) -> seen.putAll(MDC.getCopyOfContextMap()));
+
+        assertThat(seen).containsEntry(MdcLoggingFilter.MDC_REQUEST_ID, "abc-123")
+                .containsEntry(MdcLoggingFilter.MDC_USER, "alice");
+        assertThat(response.getHeader(MdcLoggingFilter.REQUEST_ID_HEADER)).isEqualTo("abc-123");
+        assertThat(MDC.get(MdcLoggingFilter.MDC_REQUEST_ID)).isNull();
+        assertThat(MDC.get(MdcLoggingFilter.MDC_USER)).isNull();
+    }
+
+    @Test
+    public void doFilter_invalidRequestId_isReplaced() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+        request.addHeader(MdcLoggingFilter.REQUEST_ID_HEADER, "bad id\nwith newline");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> { });
+
+        assertThat(response.getHeader(MdcLoggingFilter.REQUEST_ID_HEADER)).matches("[0-9a-f]{1,16}");
+    }
+}
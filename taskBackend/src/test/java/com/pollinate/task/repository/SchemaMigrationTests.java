@@ -0,0 +1,52 @@
+package com.pollinate.task.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the migrations against the targets we support besides the default in-memory H2.
+ */
+public class SchemaMigrationTests {
+
+    private MigrateResult migrate(String url) {
+        return Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+    }
+
+    @Test
+    public void migrates_h2FileMode(@TempDir Path dir) {
+        String url = "jdbc:h2:file:" + dir.resolve("tasks").toAbsolutePath();
+
+        MigrateResult result = migrate(url);
+
+        assertThat(result.success).isTrue();
+        assertThat(result.migrationsExecuted).isPositive();
+        // a second start is a no-op
+        assertThat(migrate(url).migrationsExecuted).isZero();
+    }
+
+    @Test
+    public void migrates_postgresCompatibleMode() {
+        String url = "jdbc:h2:mem:pgcompat;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+        MigrateResult result = migrate(url);
+
+        assertThat(result.success).isTrue();
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        Integer indexes = jdbc.queryForObject(
+                "select count(*) from information_schema.indexes where table_name = 'tasks' and index_name like 'idx_tasks_owner%'",
+                Integer.class);
+        assertThat(indexes).isEqualTo(1);
+    }
+}
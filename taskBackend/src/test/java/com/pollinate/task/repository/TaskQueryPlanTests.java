@@ -0,0 +1,138 @@
+package com.pollinate.task.repository;
+
+import com.pollinate.task.model.TaskCursor;
+import com.pollinate.task.model.TaskPageQuery;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the owner/due-date access paths against silently losing their index. The SQL is
+ * the SQL Hibernate generates for the repository methods, captured on its way to the
+ * driver, so a change to the JPQL is planned exactly as it will run. H2 reports the
+ * chosen index as a comment in EXPLAIN output.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.pollinate.task.repository.TaskQueryPlanTests$CapturedSql",
+        "tasks.search.warm-on-startup=false"
+})
+public class TaskQueryPlanTests {
+
+    private static final String OWNER_DUE_INDEX = "IDX_TASKS_OWNER_DUE_DATE_ID";
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 1);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Registered with Hibernate by class name, so the statements it sees are kept statically.
+     */
+    public static class CapturedSql implements StatementInspector {
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    /**
+     * Runs the repository call and returns the plan of the single query it issued.
+     */
+    private String planOf(Runnable repositoryCall) {
+        CapturedSql.statements.clear();
+        repositoryCall.run();
+        assertThat(CapturedSql.statements).hasSize(1);
+        return explain(CapturedSql.statements.getFirst());
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatement statement) -> {
+            // H2 plans a prepared statement before any value is known; EXPLAIN only needs them bound
+            ParameterMetaData parameters = statement.getParameterMetaData();
+            for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                statement.setNull(i, parameters.getParameterType(i));
+            }
+            try (ResultSet plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1).toUpperCase();
+            }
+        });
+    }
+
+    private String pagePlan(TaskPageQuery.TaskPageQueryBuilder query) {
+        return planOf(() -> taskRepository.findPage("alice", query.limit(51).build()));
+    }
+
+    @Test
+    public void findViewsByOwner_usesOwnerDueDateIndex() {
+        assertThat(planOf(() -> taskRepository.findViewsByOwner("alice"))).contains(OWNER_DUE_INDEX);
+    }
+
+    @Test
+    public void firstPage_usesOwnerDueDateIndex() {
+        assertThat(pagePlan(TaskPageQuery.builder())).contains(OWNER_DUE_INDEX);
+    }
+
+    @Test
+    public void keysetPage_usesOwnerDueDateIndex() {
+        String plan = pagePlan(TaskPageQuery.builder().after(new TaskCursor(DAY, 10L)));
+
+        assertThat(plan).contains(OWNER_DUE_INDEX);
+    }
+
+    @Test
+    public void keysetPageInUndatedTail_usesOwnerDueDateIndex() {
+        String plan = pagePlan(TaskPageQuery.builder().after(new TaskCursor(null, 10L)));
+
+        assertThat(plan).contains(OWNER_DUE_INDEX);
+    }
+
+    @Test
+    public void overdue_usesOwnerDueDateIndex() {
+        String plan = pagePlan(TaskPageQuery.builder().dueBefore(DAY));
+
+        assertThat(plan).contains(OWNER_DUE_INDEX).contains("DUE_DATE < ");
+    }
+
+    @Test
+    public void dueWindow_rangeScansOwnerDueDateIndex() {
+        String plan = pagePlan(TaskPageQuery.builder().dueAfter(DAY).dueBefore(DAY.plusDays(8)));
+
+        assertThat(plan).contains(OWNER_DUE_INDEX).contains("DUE_DATE > ").contains("DUE_DATE < ");
+    }
+
+    @Test
+    public void titlePrefix_staysWithinTheOwnerRange() {
+        String plan = pagePlan(TaskPageQuery.builder().titlePrefix("Report"));
+
+        assertThat(plan).contains(OWNER_DUE_INDEX);
+    }
+
+    @Test
+    public void findTitlesByOwner_usesOwnerDueDateIndex() {
+        assertThat(planOf(() -> taskRepository.findTitlesByOwner("alice"))).contains(OWNER_DUE_INDEX);
+    }
+
+    @Test
+    public void findByIdAndOwner_usesPrimaryKey() {
+        assertThat(planOf(() -> taskRepository.findByIdAndOwner(1L, "alice"))).contains("PRIMARY_KEY");
+    }
+}
@@ -0,0 +1,140 @@
+package com.pollinate.task.security;
+
+import com.pollinate.task.configuration.AppConfigurationProperties;
+import com.pollinate.task.service.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthTokenFilterTests {
+
+    @Mock
+    private JwtUtil jwtUtils;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private FilterChain filterChain;
+
+    @Spy
+    private AppConfigurationProperties properties = new AppConfigurationProperties();
+
+    @Mock
+    private UserVersionRegistry userVersions;
+
+    @Spy
+    private TokenDenylist denylist = new TokenDenylist(new SimpleMeterRegistry());
+
+    @InjectMocks
+    private AuthTokenFilter filter;
+
+    private final String username = "alice";
+    private final String token = "jwt-token";
+
+    @BeforeEach
+    public void setup() {
+        properties.setName("JWT");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletRequest requestWithToken() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+        request.setCookies(new Cookie("JWT", token));
+        return request;
+    }
+
+    private Claims claims(int version, List<String> roles) {
+        Claims claims = Jwts.claims();
+        claims.setSubject(username);
+        claims.setId("token-id");
+        claims.setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        claims.put(JwtUtil.CLAIM_VERSION, version);
+        claims.put(JwtUtil.CLAIM_ROLES, roles);
+        return claims;
+    }
+
+    @Test
+    public void stateless_buildsPrincipalFromClaimsWithoutUserLookup() throws Exception {
+        properties.setStateless(true);
+        when(jwtUtils.verify(token)).thenReturn(claims(0, List.of("ROLE_USER")));
+        when(userVersions.isCurrent(username, 0)).thenReturn(true);
+
+        filter.doFilter(requestWithToken(), new MockHttpServletResponse(), filterChain);
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(auth).isNotNull();
+        assertThat(auth.getName()).isEqualTo(username);
+        assertThat(auth.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(filterChain, times(1)).doFilter(any(), any());
+    }
+
+    @Test
+    public void stateful_loadsUserPerRequest() throws Exception {
+        properties.setStateless(false);
+        when(jwtUtils.verify(token)).thenReturn(claims(0, List.of()));
+        when(userVersions.isCurrent(username, 0)).thenReturn(true);
+        when(userDetailsService.loadUserByUsername(username))
+                .thenReturn(new User(username, "encoded", Collections.emptyList()));
+
+        filter.doFilter(requestWithToken(), new MockHttpServletResponse(), filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo(username);
+        verify(userDetailsService, times(1)).loadUserByUsername(username);
+    }
+
+    @Test
+    public void supersededUserVersion_isNotAuthenticated() throws Exception {
+        properties.setStateless(true);
+        when(jwtUtils.verify(token)).thenReturn(claims(0, List.of()));
+        when(userVersions.isCurrent(username, 0)).thenReturn(false);
+
+        filter.doFilter(requestWithToken(), new MockHttpServletResponse(), filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(filterChain, times(1)).doFilter(any(), any());
+    }
+
+    @Test
+    public void revokedToken_isNotAuthenticated() throws Exception {
+        properties.setStateless(true);
+        Claims claims = claims(0, List.of());
+        denylist.revoke(claims);
+        when(jwtUtils.verify(token)).thenReturn(claims);
+
+        filter.doFilter(requestWithToken(), new MockHttpServletResponse(), filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(filterChain, times(1)).doFilter(any(), any());
+    }
+}
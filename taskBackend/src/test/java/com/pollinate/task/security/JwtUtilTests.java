@@ -0,0 +1,116 @@
+package com.pollinate.task.security;
+
+import com.pollinate.task.configuration.AppConfigurationProperties;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtUtilTests {
+
+    @Spy
+    private AppConfigurationProperties properties = new AppConfigurationProperties();
+
+    @Mock
+    private UserVersionRegistry userVersions;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private JwtUtil jwtUtil;
+
+    private final String username = "alice";
+
+    @BeforeEach
+    public void setup() {
+        properties.setSecret("thisIsATestSecretThatIsLongEnoughForHmacSha256Signing0123456789");
+        properties.setExpiration(60_000);
+        properties.setVerifiedCacheSize(100);
+        jwtUtil.init();
+    }
+
+    @Test
+    public void verify_validToken_returnsClaims() {
+        String token = jwtUtil.generateToken(username);
+
+        Claims claims = jwtUtil.verify(token);
+
+        assertThat(claims).isNotNull();
+        assertThat(claims.getSubject()).isEqualTo(username);
+        assertThat(claims.get(JwtUtil.CLAIM_VERSION, Integer.class)).isZero();
+        assertThat(jwtUtil.validateJwtToken(token)).isTrue();
+        assertThat(jwtUtil.getUsernameFromToken(token)).isEqualTo(username);
+    }
+
+    @Test
+    public void verify_repeatToken_isServedFromCache() {
+        String token = jwtUtil.generateToken(username);
+
+        Claims first = jwtUtil.verify(token);
+        Claims second = jwtUtil.verify(token);
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    public void verify_cacheDisabled_parsesEveryTime() {
+        properties.setVerifiedCacheSize(0);
+        jwtUtil.init();
+        String token = jwtUtil.generateToken(username);
+
+        assertThat(jwtUtil.verify(token)).isNotSameAs(jwtUtil.verify(token));
+    }
+
+    @Test
+    public void verify_tamperedToken_returnsNull() {
+        String token = jwtUtil.generateToken(username);
+        int i = token.lastIndexOf('.') + 5;
+        String tampered = token.substring(0, i) + (token.charAt(i) == 'a' ? 'b' : 'a') + token.substring(i + 1);
+
+        assertThat(jwtUtil.verify(tampered)).isNull();
+        assertThat(jwtUtil.verify("not.a.jwt")).isNull();
+        assertThat(jwtUtil.verify("")).isNull();
+    }
+
+    @Test
+    public void verify_expiredToken_returnsNull() {
+        properties.setExpiration(-1_000);
+        String token = jwtUtil.generateToken(username);
+
+        assertThat(jwtUtil.verify(token)).isNull();
+        assertThat(meterRegistry.get("jwt.auth.failures").tag("reason", "expired").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void verify_recordsTimerByResult() {
+        String token = jwtUtil.generateToken(username);
+
+        jwtUtil.verify(token);
+        jwtUtil.verify(token);
+        jwtUtil.verify("not.a.jwt");
+
+        assertThat(meterRegistry.get("jwt.verify").tag("result", "valid").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("jwt.verify").tag("result", "cached").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("jwt.verify").tag("result", "rejected").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("jwt.auth.failures").tag("reason", "malformed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void generateToken_issuesUniqueTokenIds() {
+        Claims first = jwtUtil.verify(jwtUtil.generateToken(username));
+        Claims second = jwtUtil.verify(jwtUtil.generateToken(username));
+
+        assertThat(first.getId()).isNotBlank();
+        assertThat(second.getId()).isNotEqualTo(first.getId());
+    }
+}
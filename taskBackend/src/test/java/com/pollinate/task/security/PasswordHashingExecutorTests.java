@@ -0,0 +1,80 @@
+package com.pollinate.task.security;
+
+import com.pollinate.task.configuration.PasswordConfigurationProperties;
+import com.pollinate.task.exception.ServerBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+public class PasswordHashingExecutorTests {
+
+    @Spy
+    private PasswordConfigurationProperties properties = new PasswordConfigurationProperties();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private PasswordHashingExecutor executor;
+
+    @BeforeEach
+    public void setup() {
+        properties.setPoolSize(1);
+        properties.setQueueCapacity(1);
+        properties.setRetryAfter(Duration.ofSeconds(3));
+        executor.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void submit_runsOffTheCallingThread() throws Exception {
+        String thread = executor.submit(PasswordHashingExecutor.Operation.LOGIN, () -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+        assertThat(thread).startsWith("password-hashing-");
+        assertThat(meterRegistry.get("auth.password.hash").tag("operation", "login").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void submit_poolAndQueueFull_failsFast() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> busy = executor.submit(PasswordHashingExecutor.Operation.LOGIN, () -> {
+            running.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        });
+        running.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> queued = executor.submit(PasswordHashingExecutor.Operation.LOGIN, () -> "queued");
+
+        ServerBusyException ex = assertThrows(ServerBusyException.class, () -> executor.submit(PasswordHashingExecutor.Operation.LOGIN, () -> "rejected"));
+        assertThat(ex.getRetryAfter()).isEqualTo(Duration.ofSeconds(3));
+        assertThat(meterRegistry.get("auth.password.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(busy.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+}
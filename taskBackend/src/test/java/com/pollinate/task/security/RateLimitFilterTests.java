@@ -0,0 +1,102 @@
+package com.pollinate.task.security;
+
+import com.pollinate.task.configuration.RateLimitConfigurationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RateLimitFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final FilterChain chain = mock(FilterChain.class);
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private RateLimitFilter filter(int userBurst, int ipBurst) {
+        RateLimitConfigurationProperties properties = new RateLimitConfigurationProperties();
+        properties.setUser(new RateLimitConfigurationProperties.Limit(1, userBurst));
+        properties.setIp(new RateLimitConfigurationProperties.Limit(1, ipBurst));
+        return new RateLimitFilter(properties, meterRegistry);
+    }
+
+    private MockHttpServletResponse send(RateLimitFilter filter, String method, String uri, String address) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(address);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private void authenticateAs(String user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @Test
+    public void unauthenticated_overTheAddressLimit_gets429WithRetryAfter() throws Exception {
+        RateLimitFilter filter = filter(10, 2);
+
+        assertThat(send(filter, "POST", "/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(send(filter, "POST", "/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        MockHttpServletResponse limited = send(filter, "POST", "/login", "10.0.0.1");
+
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(limited.getHeader("Retry-After")).isEqualTo("1");
+        verify(chain, times(2)).doFilter(any(), any());
+        assertThat(meterRegistry.get("http.server.requests.throttled").tag("key", "ip").counter().count()).isEqualTo(1);
+
+        // another address has its own bucket
+        assertThat(send(filter, "POST", "/login", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void authenticated_isLimitedPerUserAcrossAddresses() throws Exception {
+        RateLimitFilter filter = filter(2, 1);
+        authenticateAs("alice");
+
+        assertThat(send(filter, "GET", "/tasks", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(send(filter, "GET", "/tasks", "10.0.0.2").getStatus()).isEqualTo(200);
+        assertThat(send(filter, "GET", "/tasks", "10.0.0.3").getStatus()).isEqualTo(429);
+
+        authenticateAs("bob");
+        assertThat(send(filter, "GET", "/tasks", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("http.server.requests.throttled").tag("key", "user").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void preflightsAndActuator_areNotLimited() throws Exception {
+        RateLimitFilter filter = filter(1, 1);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(send(filter, "OPTIONS", "/tasks", "10.0.0.1").getStatus()).isEqualTo(200);
+            assertThat(send(filter, "GET", "/actuator/health", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+        verify(chain, times(10)).doFilter(any(), any());
+    }
+
+    @Test
+    public void disabled_letsEverythingThrough() throws Exception {
+        RateLimitConfigurationProperties properties = new RateLimitConfigurationProperties();
+        properties.setEnabled(false);
+        properties.setIp(new RateLimitConfigurationProperties.Limit(1, 1));
+        RateLimitFilter filter = new RateLimitFilter(properties, meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(send(filter, "POST", "/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.pollinate.task.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TokenBucketLimiterTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void fullBucket_admitsBurstThenRejects() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(10, 5, 100);
+        long now = 1_000 * SECOND;
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("alice", now)).isZero();
+        }
+
+        // one token refills every 100ms
+        assertThat(limiter.tryAcquire("alice", now)).isEqualTo(SECOND / 10);
+    }
+
+    @Test
+    public void rejectedRequests_doNotConsumeTokens() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(10, 1, 100);
+        long now = 1_000 * SECOND;
+
+        assertThat(limiter.tryAcquire("alice", now)).isZero();
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire("alice", now)).isPositive();
+        }
+
+        assertThat(limiter.tryAcquire("alice", now + SECOND / 10)).isZero();
+    }
+
+    @Test
+    public void bucket_refillsAtTheConfiguredRateUpToBurst() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(10, 5, 100);
+        long now = 1_000 * SECOND;
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("alice", now);
+        }
+
+        // 250ms buys two tokens, not three
+        long later = now + SECOND / 4;
+        assertThat(limiter.tryAcquire("alice", later)).isZero();
+        assertThat(limiter.tryAcquire("alice", later)).isZero();
+        assertThat(limiter.tryAcquire("alice", later)).isPositive();
+
+        // an hour idle still only refills to burst
+        long muchLater = now + 3600 * SECOND;
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("alice", muchLater)).isZero();
+        }
+        assertThat(limiter.tryAcquire("alice", muchLater)).isPositive();
+    }
+
+    @Test
+    public void keys_haveIndependentBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1, 100);
+        long now = 1_000 * SECOND;
+
+        assertThat(limiter.tryAcquire("alice", now)).isZero();
+        assertThat(limiter.tryAcquire("alice", now)).isPositive();
+        assertThat(limiter.tryAcquire("bob", now)).isZero();
+    }
+
+    @Test
+    public void invalidLimits_areRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(0, 5, 100));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(10, 0, 100));
+    }
+
+    @Test
+    public void concurrentCallers_neverExceedTheBurst() throws Exception {
+        int burst = 100;
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, burst, 100);
+        long now = 1_000 * SECOND;
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> callers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                callers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1_000; i++) {
+                        if (limiter.tryAcquire("shared", now) == 0) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> caller : callers) {
+                caller.get();
+            }
+        }
+
+        assertThat(admitted.get()).isEqualTo(burst);
+    }
+}
@@ -0,0 +1,55 @@
+package com.pollinate.task.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenDenylistTests {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final TokenDenylist denylist = new TokenDenylist(meterRegistry);
+
+    private static Claims claims(String id, long expiresInMillis) {
+        Claims claims = Jwts.claims();
+        claims.setSubject("alice");
+        claims.setId(id);
+        claims.setExpiration(new Date(System.currentTimeMillis() + expiresInMillis));
+        return claims;
+    }
+
+    @Test
+    public void revoke_onlyThatTokenIsRevoked() {
+        Claims revoked = claims("a", 60_000);
+        denylist.revoke(revoked);
+
+        assertThat(denylist.isRevoked(revoked)).isTrue();
+        assertThat(denylist.isRevoked(claims("b", 60_000))).isFalse();
+        assertThat(meterRegistry.get("jwt.revoked").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    public void revoke_entryExpiresWithTheToken() throws Exception {
+        Claims shortLived = claims("a", 50);
+        denylist.revoke(shortLived);
+
+        Thread.sleep(100);
+
+        assertThat(denylist.isRevoked(shortLived)).isFalse();
+    }
+
+    @Test
+    public void tokenWithoutId_isNeverRevoked() {
+        Claims legacy = claims(null, 60_000);
+        denylist.revoke(legacy);
+
+        assertThat(denylist.isRevoked(legacy)).isFalse();
+        assertThat(meterRegistry.get("jwt.revoked").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,119 @@
+package com.pollinate.task.security;
+
+import com.pollinate.task.configuration.AppConfigurationProperties;
+import com.pollinate.task.datasource.RecentWriters;
+import com.pollinate.task.model.AuthRequest;
+import com.pollinate.task.repository.UserRepository;
+import com.pollinate.task.service.AuthService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Against the real users table: a revoke-all must outlive the in-memory copy, which a
+ * fresh registry (as after a restart) stands in for, and the tokens of a user who logged
+ * out everywhere or was deleted must be refused by the filter chain.
+ */
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "tasks.search.warm-on-startup=false",
+        "registration.warm-on-startup=false"
+})
+public class UserVersionRegistryTests {
+
+    @Autowired
+    private UserVersionRegistry userVersions;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RecentWriters recentWriters;
+
+    @Autowired
+    private AppConfigurationProperties properties;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final String username = "versioned-user";
+
+    @BeforeEach
+    public void setup() {
+        userRepository.save(AuthRequest.builder().username(username).password("hash").build());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.deleteByUsername(username);
+    }
+
+    @Test
+    public void bump_supersedesIssuedTokens_acrossARestart() {
+        int issued = userVersions.current(username);
+
+        int bumped = userVersions.bump(username);
+
+        assertThat(bumped).isEqualTo(issued + 1);
+        assertThat(userVersions.isCurrent(username, issued)).isFalse();
+
+        UserVersionRegistry restarted = new UserVersionRegistry(userRepository, recentWriters, properties);
+        assertThat(restarted.isCurrent(username, issued)).isFalse();
+        assertThat(restarted.isCurrent(username, bumped)).isTrue();
+    }
+
+    @Test
+    public void unknownUser_matchesNoToken() {
+        assertThat(userVersions.current("no-such-user")).isEqualTo(UserVersionRegistry.DELETED);
+        assertThat(userVersions.isCurrent("no-such-user", 0)).isFalse();
+    }
+
+    @Test
+    public void logoutAll_refusesEveryTokenIssuedSoFar() throws Exception {
+        Cookie laptop = new Cookie(properties.getName(), jwtUtil.generateToken(username));
+        Cookie phone = new Cookie(properties.getName(), jwtUtil.generateToken(username));
+
+        mockMvc.perform(post("/logout-all").cookie(laptop))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.SET_COOKIE, containsString("Max-Age=0")));
+
+        mockMvc.perform(get("/tasks").cookie(laptop)).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/tasks").cookie(phone)).andExpect(status().isUnauthorized());
+        Cookie loggedInAgain = new Cookie(properties.getName(), jwtUtil.generateToken(username));
+        mockMvc.perform(get("/tasks").cookie(loggedInAgain)).andExpect(status().isOk());
+    }
+
+    @Test
+    public void logoutAll_withoutAToken_isUnauthorized() throws Exception {
+        mockMvc.perform(post("/logout-all")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void deletedUser_tokenIsRefused() throws Exception {
+        Cookie cookie = new Cookie(properties.getName(), jwtUtil.generateToken(username));
+        mockMvc.perform(get("/tasks").cookie(cookie)).andExpect(status().isOk());
+
+        authService.deleteUser(username);
+
+        mockMvc.perform(get("/tasks").cookie(cookie)).andExpect(status().isUnauthorized());
+    }
+}
@@ -1,15 +1,23 @@
 
 package com.pollinate.task.service;
 
+import com.pollinate.task.configuration.RegistrationConfigurationProperties;
+import com.pollinate.task.configuration.ReplicaConfigurationProperties;
+import com.pollinate.task.datasource.RecentWriters;
+import com.pollinate.task.exception.UsernameTakenException;
 import com.pollinate.task.model.AuthRequest;
 import com.pollinate.task.repository.UserRepository;
+import com.pollinate.task.security.UserVersionRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -26,6 +34,15 @@ public class AuthServiceTests {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Spy
+    private RecentWriters recentWriters = new RecentWriters(new ReplicaConfigurationProperties());
+
+    @Spy
+    private KnownUsernames knownUsernames = new KnownUsernames(new RegistrationConfigurationProperties());
+
+    @Mock
+    private UserVersionRegistry userVersions;
+
     @InjectMocks
     private AuthService authService;
 
@@ -63,6 +80,48 @@ public class AuthServiceTests {
         AuthRequest savedArg = captor.getValue();
         assertThat(savedArg.getUsername()).isEqualTo(username);
         assertThat(savedArg.getPassword()).isEqualTo(encodedPassword);
+
+        verify(recentWriters, times(1)).recordWrite(username);
+        assertThat(authService.isKnownUsername(username)).isTrue();
+    }
+
+    @Test
+    public void saveUser_uniqueConstraintViolation_throwsUsernameTaken() {
+        AuthRequest incoming = AuthRequest.builder()
+                .username(username)
+                .password(rawPassword)
+                .build();
+
+        when(passwordEncoder.encode(rawPassword)).thenReturn(encodedPassword);
+        when(userRepository.save(any(AuthRequest.class)))
+                .thenThrow(new DataIntegrityViolationException("unique constraint uk_users_username"));
+
+        UsernameTakenException ex = assertThrows(UsernameTakenException.class, () -> authService.saveUser(incoming));
+        assertThat(ex).hasMessageContaining(username);
+
+        // no existence query, and the next attempt is refused from memory
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(recentWriters, never()).recordWrite(anyString());
+        assertThat(authService.isKnownUsername(username)).isTrue();
+    }
+
+    @Test
+    public void saveUser_otherIntegrityViolation_isRethrown() {
+        AuthRequest incoming = AuthRequest.builder()
+                .username(username)
+                .password(rawPassword)
+                .build();
+        DataIntegrityViolationException notNull = new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("NULL not allowed for column \"PASSWORD\"", null, null));
+
+        when(passwordEncoder.encode(rawPassword)).thenReturn(encodedPassword);
+        when(userRepository.save(any(AuthRequest.class))).thenThrow(notNull);
+
+        DataIntegrityViolationException ex = assertThrows(DataIntegrityViolationException.class, () -> authService.saveUser(incoming));
+        assertThat(ex).isSameAs(notNull);
+
+        // the name was not proven taken, so it must not be refused from memory
+        assertThat(authService.isKnownUsername(username)).isFalse();
     }
 
     @Test
@@ -94,4 +153,11 @@ public class AuthServiceTests {
         verify(userRepository, times(1)).existsByUsername("katie");
         verify(userRepository, times(1)).existsByUsername("charlie");
     }
+
+    @Test
+    public void revokeAllSessions_bumpsTheUserVersion() {
+        authService.revokeAllSessions(username);
+
+        verify(userVersions, times(1)).bump(username);
+    }
 }
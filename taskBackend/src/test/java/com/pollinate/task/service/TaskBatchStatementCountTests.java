@@ -0,0 +1,101 @@
+package com.pollinate.task.service;
+
+import com.pollinate.task.model.BatchTaskOperation;
+import com.pollinate.task.model.BatchTaskResult;
+import com.pollinate.task.model.TaskView;
+import com.pollinate.task.repository.TaskRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that batch writes really reach the driver as JDBC batches: Hibernate prepares a
+ * statement once per batch, so the prepared statement count stays flat as the batch grows.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "tasks.cache.enabled=false"
+})
+public class TaskBatchStatementCountTests {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private final String username = "batch-user";
+
+    @BeforeEach
+    public void setup() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(username, "N/A"));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        taskRepository.deleteAllByIdInBatch(taskRepository.findViewsByOwner(username).stream().map(TaskView::id).toList());
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void batchInsert_isSentAsOneJdbcBatch() {
+        List<BatchTaskOperation> creates = IntStream.range(0, 40)
+                .mapToObj(i -> BatchTaskOperation.builder()
+                        .op(BatchTaskOperation.Op.CREATE)
+                        .title("Task " + i)
+                        .dueDate(LocalDate.now().plusDays(1 + i))
+                        .build())
+                .toList();
+
+        statistics.clear();
+        List<BatchTaskResult> results = taskService.applyBatch(creates);
+
+        assertThat(results).allMatch(result -> result.getStatus() == 201);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(40);
+        // sequence allocation (pooled, one or two calls) plus a single insert batch
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    public void batchUpdateAndDelete_useOneLookupAndOneBatchEach() {
+        List<BatchTaskResult> created = taskService.applyBatch(IntStream.range(0, 20)
+                .mapToObj(i -> BatchTaskOperation.builder().op(BatchTaskOperation.Op.CREATE).title("Task " + i).build())
+                .toList());
+        List<Long> ids = created.stream().map(BatchTaskResult::getTask).map(TaskView::id).toList();
+
+        List<BatchTaskOperation> mixed = IntStream.range(0, ids.size())
+                .mapToObj(i -> i % 2 == 0
+                        ? BatchTaskOperation.builder().op(BatchTaskOperation.Op.UPDATE).id(ids.get(i)).title("Updated " + i).build()
+                        : BatchTaskOperation.builder().op(BatchTaskOperation.Op.DELETE).id(ids.get(i)).build())
+                .toList();
+
+        statistics.clear();
+        List<BatchTaskResult> results = taskService.applyBatch(mixed);
+
+        assertThat(results).extracting(BatchTaskResult::getStatus).containsOnly(200, 204);
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(10);
+        assertThat(statistics.getEntityDeleteCount()).isEqualTo(10);
+        // IN lookup + update batch + delete batch
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        assertThat(taskRepository.findViewsByOwner(username)).hasSize(10);
+    }
+}
@@ -0,0 +1,55 @@
+package com.pollinate.task.service;
+
+import com.pollinate.task.configuration.ReplicaConfigurationProperties;
+import com.pollinate.task.configuration.TaskConfigurationProperties;
+import com.pollinate.task.datasource.RecentWriters;
+import com.pollinate.task.model.TaskChangedEvent;
+import com.pollinate.task.model.TaskView;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.spy;
+
+/**
+ * The ETag may only move on once the cached reads are gone and the writer reads the
+ * primary; the other way round a reader could get the new tag with the old page.
+ * The listeners are registered in the wrong order here, so only @Order can pass it.
+ */
+public class TaskChangeListenerOrderTests {
+
+    @Configuration
+    @EnableTransactionManagement
+    static class Listeners {
+    }
+
+    @Test
+    public void onTaskChanged_cacheAndWriterRoutingGoBeforeTheVersionBump() {
+        TaskVersionRegistry versions = spy(new TaskVersionRegistry());
+        RecentWriters recentWriters = spy(new RecentWriters(new ReplicaConfigurationProperties()));
+        TaskListCache cache = spy(new TaskListCache(new TaskConfigurationProperties()));
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.register(Listeners.class);
+            context.registerBean(TaskVersionRegistry.class, () -> versions);
+            context.registerBean(RecentWriters.class, () -> recentWriters);
+            context.registerBean(TaskListCache.class, () -> cache);
+            context.refresh();
+
+            // no transaction: fallbackExecution runs the listeners straight away, in order
+            TaskView task = TaskView.builder().id(1L).title("Ordered").build();
+            context.publishEvent(new TaskChangedEvent("alice", TaskChangedEvent.Type.UPDATED, task));
+        }
+
+        InOrder cacheFirst = inOrder(cache, versions);
+        cacheFirst.verify(cache).onTaskChanged(any());
+        cacheFirst.verify(versions).onTaskChanged(any());
+        InOrder writerFirst = inOrder(recentWriters, versions);
+        writerFirst.verify(recentWriters).onTaskChanged(any());
+        writerFirst.verify(versions).onTaskChanged(any());
+    }
+}
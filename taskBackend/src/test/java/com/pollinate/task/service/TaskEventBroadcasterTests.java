@@ -0,0 +1,195 @@
+package com.pollinate.task.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pollinate.task.configuration.TaskConfigurationProperties;
+import com.pollinate.task.model.TaskChangedEvent;
+import com.pollinate.task.model.TaskView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TaskEventBroadcasterTests {
+
+    private final TaskConfigurationProperties properties = new TaskConfigurationProperties();
+
+    private TaskEventBroadcaster broadcaster;
+
+    private final String username = "alice";
+
+    @BeforeEach
+    public void setup() {
+        properties.getStream().setBufferSize(4);
+        properties.getStream().setReplaySize(3);
+        broadcaster = new TaskEventBroadcaster(properties, new ObjectMapper().registerModule(new JavaTimeModule()));
+        broadcaster.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    private void publish(TaskChangedEvent.Type type, long id) {
+        TaskView task = TaskView.builder().id(id).title("Task " + id).dueDate(LocalDate.now().plusDays(1)).build();
+        broadcaster.onTaskChanged(new TaskChangedEvent(username, type, task));
+    }
+
+    @Test
+    public void onTaskChanged_pushesToTheOwnersSubscribersOnly() throws Exception {
+        RecordingEmitter mine = new RecordingEmitter();
+        RecordingEmitter other = new RecordingEmitter();
+        broadcaster.subscribe(username, null, mine);
+        broadcaster.subscribe("bob", null, other);
+
+        publish(TaskChangedEvent.Type.CREATED, 7);
+
+        assertThat(mine.next()).contains(":connected");
+        String frame = mine.next();
+        assertThat(frame).contains("event:created").contains("id:").contains("\"title\":\"Task 7\"");
+        assertThat(other.next()).contains(":connected");
+        assertThat(other.sent.poll(200, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void subscribe_withLastEventId_replaysOnlyMissedEvents() throws Exception {
+        RecordingEmitter first = new RecordingEmitter();
+        broadcaster.subscribe(username, null, first);
+        publish(TaskChangedEvent.Type.CREATED, 1);
+        first.next();
+        String lastSeen = idOf(first.next());
+        publish(TaskChangedEvent.Type.UPDATED, 1);
+        publish(TaskChangedEvent.Type.DELETED, 1);
+
+        RecordingEmitter resumed = new RecordingEmitter();
+        broadcaster.subscribe(username, lastSeen, resumed);
+
+        assertThat(resumed.next()).contains(":connected");
+        assertThat(resumed.next()).contains("event:updated");
+        assertThat(resumed.next()).contains("event:deleted");
+        assertThat(resumed.sent.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    public void subscribe_withEvictedOrForeignLastEventId_sendsReset() throws Exception {
+        RecordingEmitter first = new RecordingEmitter();
+        broadcaster.subscribe(username, null, first);
+        publish(TaskChangedEvent.Type.CREATED, 1);
+        first.next();
+        String oldest = idOf(first.next());
+        for (int i = 2; i <= 5; i++) {
+            publish(TaskChangedEvent.Type.CREATED, i);
+        }
+
+        RecordingEmitter evicted = new RecordingEmitter();
+        broadcaster.subscribe(username, oldest, evicted);
+        RecordingEmitter foreign = new RecordingEmitter();
+        broadcaster.subscribe(username, "otherboot-3", foreign);
+
+        evicted.next();
+        assertThat(evicted.next()).contains("event:" + TaskEventBroadcaster.RESET_EVENT);
+        foreign.next();
+        assertThat(foreign.next()).contains("event:" + TaskEventBroadcaster.RESET_EVENT);
+    }
+
+    @Test
+    public void slowSubscriber_isDisconnectedWhenItsBufferFills() throws Exception {
+        RecordingEmitter slow = new RecordingEmitter();
+        slow.blockSends();
+        broadcaster.subscribe(username, null, slow);
+
+        for (int i = 1; i <= 10; i++) {
+            publish(TaskChangedEvent.Type.CREATED, i);
+        }
+
+        assertThat(slow.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        slow.unblockSends();
+    }
+
+    @Test
+    public void stuckSubscribers_doNotDelayOthers() throws Exception {
+        List<RecordingEmitter> stuck = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitter.blockSends();
+            broadcaster.subscribe(username, null, emitter);
+            stuck.add(emitter);
+        }
+        RecordingEmitter fast = new RecordingEmitter();
+        broadcaster.subscribe(username, null, fast);
+
+        // within the fast subscriber's buffer, so only being stuck behind the others could fail it
+        for (int i = 1; i <= 3; i++) {
+            publish(TaskChangedEvent.Type.CREATED, i);
+        }
+
+        // well inside the 5s the stuck sends block for
+        assertThat(fast.sent.poll(1, TimeUnit.SECONDS)).contains(":connected");
+        for (int i = 1; i <= 3; i++) {
+            assertThat(fast.sent.poll(1, TimeUnit.SECONDS)).contains("\"title\":\"Task " + i + "\"");
+        }
+        stuck.forEach(RecordingEmitter::unblockSends);
+    }
+
+    private static String idOf(String frame) {
+        return frame.lines()
+                .filter(line -> line.startsWith("id:"))
+                .map(line -> line.substring(3))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        void blockSends() {
+            gate = new CountDownLatch(1);
+        }
+
+        void unblockSends() {
+            gate.countDown();
+        }
+
+        String next() throws InterruptedException {
+            String frame = sent.poll(5, TimeUnit.SECONDS);
+            assertThat(frame).as("expected another event").isNotNull();
+            return frame;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sent.add(builder.build().stream()
+                    .map(data -> String.valueOf(data.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.pollinate.task.service;
+
+import com.pollinate.task.model.Task;
+import com.pollinate.task.model.TaskExportFormat;
+import com.pollinate.task.model.TaskView;
+import com.pollinate.task.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "tasks.export.fetch-size=2")
+public class TaskExporterTests {
+
+    @Autowired
+    private TaskExporter exporter;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final String username = "export-user";
+
+    private final LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+    @BeforeEach
+    public void setup() {
+        taskRepository.saveAll(List.of(
+                Task.builder().title("Later").dueDate(tomorrow.plusDays(1)).owner(username).build(),
+                Task.builder().title("Say \"hi\", then leave").dueDate(tomorrow).owner(username).build(),
+                Task.builder().title("Undated").owner(username).build(),
+                Task.builder().title("Someone else's").dueDate(tomorrow).owner("other-user").build()
+        ));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        for (String owner : List.of(username, "other-user")) {
+            taskRepository.deleteAllByIdInBatch(taskRepository.findViewsByOwner(owner).stream().map(TaskView::id).toList());
+        }
+    }
+
+    @Test
+    public void export_ndjson_writesOneObjectPerLineInPageOrder() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exporter.export(username, TaskExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(3);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).contains("\"title\":\"Say \\\"hi\\\", then leave\"");
+        assertThat(lines[1]).contains("\"title\":\"Later\"");
+        assertThat(lines[2]).contains("\"title\":\"Undated\"");
+    }
+
+    @Test
+    public void export_csv_quotesFieldsThatNeedIt() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.export(username, TaskExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(lines[0]).isEqualTo("id,title,dueDate");
+        assertThat(lines[1]).endsWith(",\"Say \"\"hi\"\", then leave\"," + tomorrow);
+        assertThat(lines[3]).endsWith(",Undated,");
+    }
+
+    @Test
+    public void export_clientGoesAway_stopsAndReleasesTheCursor() throws Exception {
+        taskRepository.saveAll(IntStream.range(0, 50)
+                .mapToObj(i -> Task.builder().title("Bulk " + i).dueDate(tomorrow).owner(username).build())
+                .toList());
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThrows(IOException.class, () -> exporter.export(username, TaskExportFormat.NDJSON, disconnected));
+
+        // connection and transaction were given back: a fresh export still works
+        assertThat(exporter.export(username, TaskExportFormat.NDJSON, new ByteArrayOutputStream())).isEqualTo(53);
+    }
+}
@@ -0,0 +1,106 @@
+package com.pollinate.task.service;
+
+import com.pollinate.task.configuration.TaskConfigurationProperties;
+import com.pollinate.task.model.TaskChangedEvent;
+import com.pollinate.task.model.TaskPage;
+import com.pollinate.task.model.TaskPageQuery;
+import com.pollinate.task.model.TaskView;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TaskListCacheTests {
+
+    private final String owner = "alice";
+
+    private TaskListCache cache(boolean enabled) {
+        TaskConfigurationProperties properties = new TaskConfigurationProperties();
+        properties.getCache().setEnabled(enabled);
+        properties.getCache().setMaxOwners(2);
+        return new TaskListCache(properties);
+    }
+
+    @Test
+    public void getAll_secondReadIsAHit() {
+        TaskListCache cache = cache(true);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getAll(owner, () -> List.of(task(loads.incrementAndGet())));
+        List<TaskView> second = cache.getAll(owner, () -> List.of(task(loads.incrementAndGet())));
+
+        assertThat(loads).hasValue(1);
+        assertThat(second).extracting(TaskView::id).containsExactly(1L);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void getPage_differentQueriesAreCachedSeparately() {
+        TaskListCache cache = cache(true);
+        AtomicInteger loads = new AtomicInteger();
+        TaskPageQuery first = TaskPageQuery.builder().limit(10).build();
+        TaskPageQuery filtered = TaskPageQuery.builder().limit(10).titlePrefix("a").build();
+
+        cache.getPage(owner, first, () -> page(loads.incrementAndGet()));
+        cache.getPage(owner, filtered, () -> page(loads.incrementAndGet()));
+        cache.getPage(owner, TaskPageQuery.builder().limit(10).build(), () -> page(loads.incrementAndGet()));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void taskChangedEvent_invalidatesOnlyThatOwner() {
+        TaskListCache cache = cache(true);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getAll(owner, () -> List.of(task(loads.incrementAndGet())));
+        cache.getAll("bob", () -> List.of(task(loads.incrementAndGet())));
+
+        cache.onTaskChanged(new TaskChangedEvent(owner, TaskChangedEvent.Type.CREATED, task(3)));
+
+        List<TaskView> reloaded = cache.getAll(owner, () -> List.of(task(loads.incrementAndGet())));
+        cache.getAll("bob", () -> List.of(task(loads.incrementAndGet())));
+
+        assertThat(reloaded).extracting(TaskView::id).containsExactly(3L);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    public void failedLoad_isNotCached() {
+        TaskListCache cache = cache(true);
+
+        try {
+            cache.getAll(owner, () -> {
+                throw new IllegalStateException("db down");
+            });
+        } catch (IllegalStateException expected) {
+            // fall through
+        }
+        List<TaskView> result = cache.getAll(owner, () -> List.of(task(1)));
+
+        assertThat(result).hasSize(1);
+    }
+
+    @Test
+    public void disabled_alwaysLoads() {
+        TaskListCache cache = cache(false);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getAll(owner, () -> List.of(task(loads.incrementAndGet())));
+        cache.getAll(owner, () -> List.of(task(loads.incrementAndGet())));
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.stats().requestCount()).isZero();
+    }
+
+    private TaskView task(long id) {
+        return TaskView.builder().id(id).title("Task " + id).build();
+    }
+
+    private TaskPage page(long id) {
+        return TaskPage.builder().tasks(List.of(task(id))).build();
+    }
+}
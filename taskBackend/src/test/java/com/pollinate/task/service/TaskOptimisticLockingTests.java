@@ -0,0 +1,141 @@
+package com.pollinate.task.service;
+
+import com.pollinate.task.exception.TaskVersionConflictException;
+import com.pollinate.task.model.TaskRequest;
+import com.pollinate.task.model.TaskView;
+import com.pollinate.task.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many writers against one task through the real service and database: every write is
+ * conditional on the version it read, so exactly one writer per version wins and no
+ * update is silently lost.
+ */
+@SpringBootTest(properties = "tasks.search.warm-on-startup=false")
+public class TaskOptimisticLockingTests {
+
+    private static final int WRITERS = 16;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final String username = "locking-user";
+
+    private TaskView task;
+
+    @BeforeEach
+    public void setup() {
+        authenticate();
+        task = taskService.createTask(TaskRequest.builder().title("Shared").build());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        taskRepository.deleteAllByIdInBatch(taskRepository.findViewsByOwner(username).stream().map(TaskView::id).toList());
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(username, "N/A"));
+    }
+
+    @Test
+    public void sameVersionWriters_exactlyOneWins() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<TaskView>> writers = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            String title = "Writer " + i;
+            writers.add(() -> {
+                authenticate();
+                start.await();
+                try {
+                    return taskService.updateTasks(TaskRequest.builder().title(title).build(), task.id(), task.etag());
+                } catch (TaskVersionConflictException | OptimisticLockingFailureException conflict) {
+                    return null;
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            });
+        }
+
+        List<TaskView> winners = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(WRITERS)) {
+            List<Future<TaskView>> results = writers.stream().map(executor::submit).toList();
+            start.countDown();
+            for (Future<TaskView> result : results) {
+                TaskView written = result.get();
+                if (written != null) {
+                    winners.add(written);
+                }
+            }
+        }
+
+        assertThat(winners).hasSize(1);
+        TaskView stored = taskRepository.findViewsByOwner(username).getFirst();
+        assertThat(stored.version()).isEqualTo(task.version() + 1);
+        assertThat(stored.title()).isEqualTo(winners.getFirst().title());
+    }
+
+    @Test
+    public void retryingWriters_loseNoUpdates() throws Exception {
+        int updatesPerWriter = 10;
+        List<Callable<Void>> writers = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            writers.add(() -> {
+                authenticate();
+                try {
+                    for (int done = 0; done < updatesPerWriter; ) {
+                        // read, modify and write back conditionally, retrying on conflict
+                        TaskView current = taskRepository.findViewsByOwnerAndIdIn(username, List.of(task.id())).getFirst();
+                        TaskRequest next = TaskRequest.builder().title(String.valueOf(Integer.parseInt(counter(current)) + 1)).build();
+                        try {
+                            taskService.updateTasks(next, task.id(), current.etag());
+                            done++;
+                        } catch (TaskVersionConflictException | OptimisticLockingFailureException conflict) {
+                            // lost the race to another writer, read again
+                        }
+                    }
+                    return null;
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            });
+        }
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(WRITERS)) {
+            for (Future<Void> result : executor.invokeAll(writers)) {
+                result.get();
+            }
+        }
+
+        // every increment landed exactly once, however many attempts lost a race
+        int expected = WRITERS * updatesPerWriter;
+        TaskView stored = taskRepository.findViewsByOwner(username).getFirst();
+        assertThat(stored.title()).isEqualTo(String.valueOf(expected));
+        assertThat(stored.version()).isEqualTo(task.version() + expected);
+    }
+
+    private static String counter(TaskView view) {
+        return view.title().equals("Shared") ? "0" : view.title();
+    }
+}
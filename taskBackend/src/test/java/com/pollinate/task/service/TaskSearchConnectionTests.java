@@ -0,0 +1,114 @@
+package com.pollinate.task.service;
+
+import com.pollinate.task.model.TaskRequest;
+import com.pollinate.task.model.TaskView;
+import com.pollinate.task.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * An owner's first search loads the title index and then reads the hits. Both must run
+ * one after the other on a single pooled connection: a load nested inside the search's
+ * own transaction would hold a second one, and a handful of concurrent first searches
+ * could then drain the pool.
+ */
+@SpringBootTest(properties = {
+        "tasks.search.warm-on-startup=false",
+        "registration.warm-on-startup=false"
+})
+public class TaskSearchConnectionTests {
+
+    private static final AtomicInteger open = new AtomicInteger();
+
+    private static final AtomicInteger maxOpen = new AtomicInteger();
+
+    @TestConfiguration
+    static class CountOpenConnections {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && beanName.equals("dataSource")
+                            ? new CountingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Tracks how many connections are checked out at once, closing included.
+     */
+    static class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("close") && !connection.isClosed()) {
+                            open.decrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final String username = "search-pool-user";
+
+    @BeforeEach
+    public void setup() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(username, "N/A"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        taskRepository.deleteAllByIdInBatch(taskRepository.findViewsByOwner(username).stream().map(TaskView::id).toList());
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void firstSearch_holdsOneConnectionAtATime() {
+        TaskView task = taskService.createTask(TaskRequest.builder().title("Quarterly report").build());
+        maxOpen.set(open.get());
+
+        // the owner is not indexed yet, so this search loads it before reading the hit
+        assertThat(taskService.searchTasks("report", 10)).extracting(TaskView::id).containsExactly(task.id());
+
+        assertThat(maxOpen.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,132 @@
+package com.pollinate.task.service;
+
+import com.pollinate.task.configuration.TaskConfigurationProperties;
+import com.pollinate.task.model.TaskChangedEvent;
+import com.pollinate.task.model.TaskTitle;
+import com.pollinate.task.model.TaskView;
+import com.pollinate.task.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskSearchIndexTests {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final TaskConfigurationProperties properties = new TaskConfigurationProperties();
+
+    private TaskSearchIndex index;
+
+    private final String username = "alice";
+
+    @BeforeEach
+    public void setup() {
+        properties.getSearch().setMaxTokensPerTask(4);
+        properties.getSearch().setMaxTokenLength(8);
+        index = new TaskSearchIndex(properties, taskRepository, transactionManager);
+    }
+
+    private void changed(TaskChangedEvent.Type type, long id, String title) {
+        TaskView task = TaskView.builder().id(id).title(title).build();
+        index.onTaskChanged(new TaskChangedEvent(username, type, task));
+    }
+
+    @Test
+    public void search_matchesAllWordsByPrefixAndRanksExactWordsFirst() {
+        when(taskRepository.findTitlesByOwner(username)).thenReturn(List.of(
+                new TaskTitle(1L, username, "Buy milk"),
+                new TaskTitle(2L, username, "Buy milkshake mix"),
+                new TaskTitle(3L, username, "Call the bank"),
+                new TaskTitle(4L, username, "buy MILK, eggs")
+        ));
+
+        assertThat(index.search(username, "milk BUY", 10)).containsExactly(4L, 1L, 2L);
+        assertThat(index.search(username, "ban", 10)).containsExactly(3L);
+        assertThat(index.search(username, "buy bank", 10)).isEmpty();
+        assertThat(index.search(username, "  ", 10)).isEmpty();
+        assertThat(index.search(username, "milk", 1)).containsExactly(4L);
+    }
+
+    @Test
+    public void onTaskChanged_keepsALoadedIndexCurrent() {
+        when(taskRepository.findTitlesByOwner(username)).thenReturn(List.of(new TaskTitle(1L, username, "Old title")));
+        assertThat(index.search(username, "old", 10)).containsExactly(1L);
+
+        changed(TaskChangedEvent.Type.UPDATED, 1L, "New title");
+        changed(TaskChangedEvent.Type.CREATED, 2L, "Another title");
+        changed(TaskChangedEvent.Type.DELETED, 2L, "Another title");
+
+        assertThat(index.search(username, "old", 10)).isEmpty();
+        assertThat(index.search(username, "title", 10)).containsExactly(1L);
+        verify(taskRepository, times(1)).findTitlesByOwner(username);
+    }
+
+    @Test
+    public void onTaskChanged_duringLoad_winsOverTheRowsTheLoadRead() {
+        // the delete commits while the owner's rows are being read
+        when(taskRepository.findTitlesByOwner(username)).thenAnswer(inv -> {
+            changed(TaskChangedEvent.Type.DELETED, 1L, "Stale");
+            changed(TaskChangedEvent.Type.CREATED, 2L, "Fresh");
+            return List.of(new TaskTitle(1L, username, "Stale"));
+        });
+
+        assertThat(index.search(username, "stale", 10)).isEmpty();
+        assertThat(index.search(username, "fresh", 10)).containsExactly(2L);
+    }
+
+    @Test
+    public void onTaskChanged_duringWarm_winsOverRowsReadBeforeTheOwnerIsInstalled() {
+        // alice's rows are read, then the delete commits before the cursor moves on to bob
+        // and alice's index is installed
+        when(taskRepository.streamAllTitles(anyInt())).thenReturn(Stream.of(
+                new TaskTitle(1L, username, "Stale"),
+                new TaskTitle(5L, "bob", "Other")
+        ).peek(row -> {
+            if (row.owner().equals("bob")) {
+                changed(TaskChangedEvent.Type.DELETED, 1L, "Stale");
+            }
+        }));
+
+        index.warm();
+
+        assertThat(index.search(username, "stale", 10)).isEmpty();
+        assertThat(index.search("bob", "other", 10)).containsExactly(5L);
+        verify(taskRepository, never()).findTitlesByOwner(username);
+    }
+
+    @Test
+    public void add_boundsTokensPerTaskAndReportsMemory() {
+        when(taskRepository.findTitlesByOwner(username)).thenReturn(List.of(
+                new TaskTitle(1L, username, "one two three four five six supercalifragilistic")));
+
+        assertThat(index.search(username, "one", 10)).containsExactly(1L);
+        assertThat(index.search(username, "five", 10)).isEmpty();
+        assertThat(index.getIndexedTasks()).isEqualTo(1);
+        long oneTask = index.getEstimatedBytes();
+        assertThat(oneTask).isPositive();
+
+        changed(TaskChangedEvent.Type.DELETED, 1L, null);
+
+        assertThat(index.getIndexedTasks()).isZero();
+        assertThat(index.getEstimatedBytes()).isZero();
+    }
+
+    @Test
+    public void tokenize_truncatesLongWords() {
+        assertThat(index.tokenize("Supercalifragilistic!", 4)).containsExactly("supercal");
+    }
+}
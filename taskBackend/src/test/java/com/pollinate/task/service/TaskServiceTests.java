@@ -1,15 +1,31 @@
 
 package com.pollinate.task.service;
 
+import com.pollinate.task.configuration.TaskConfigurationProperties;
+import com.pollinate.task.exception.IfMatchRequiredException;
+import com.pollinate.task.exception.TaskVersionConflictException;
+import com.pollinate.task.model.BatchTaskOperation;
+import com.pollinate.task.model.BatchTaskResult;
+import com.pollinate.task.model.Task;
+import com.pollinate.task.model.TaskChangedEvent;
+import com.pollinate.task.model.TaskCursor;
+import com.pollinate.task.model.TaskPage;
+import com.pollinate.task.model.TaskPageQuery;
 import com.pollinate.task.model.TaskRequest;
+import com.pollinate.task.model.TaskView;
 import com.pollinate.task.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,6 +44,24 @@ public class TaskServiceTests {
     @Mock
     private TaskRepository taskRepository;
 
+    @Spy
+    private TaskConfigurationProperties properties = new TaskConfigurationProperties();
+
+    @Spy
+    private TaskListCache taskListCache = new TaskListCache(new TaskConfigurationProperties());
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private TaskVersionRegistry taskVersions = new TaskVersionRegistry();
+
+    @Mock
+    private TaskSearchIndex searchIndex;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -39,6 +73,11 @@ public class TaskServiceTests {
         SecurityContextHolder.getContext().setAuthentication(auth);
     }
 
+    @BeforeEach
+    public void setup() {
+        taskService.init();
+    }
+
     @AfterEach
     public void tearDown() {
         SecurityContextHolder.clearContext();
@@ -48,18 +87,141 @@ public class TaskServiceTests {
     public void getTasks_success() {
         authenticateAs(username);
 
-        List<TaskRequest> tasks = List.of(
-                TaskRequest.builder().title("Task A").dueDate(tomorrow).owner(username).build()
+        List<TaskView> tasks = List.of(
+                TaskView.builder().title("Task A").dueDate(tomorrow).build()
         );
-        when(taskRepository.findByOwner(username)).thenReturn(tasks);
+        when(taskRepository.findViewsByOwner(username)).thenReturn(tasks);
+
+        List<TaskView> result = taskService.getTasks();
+
+        assertThat(result).hasSize(1);
+        assertThat(result.getFirst().title()).isEqualTo("Task A");
+        assertThat(result.getFirst().dueDate()).isEqualTo(tomorrow);
+
+        verify(taskRepository, times(1)).findViewsByOwner(username);
+        assertThat(meterRegistry.get("tasks.owner.size").summary().totalAmount()).isEqualTo(1);
+    }
 
-        List<TaskRequest> result = taskService.getTasks();
+    @Test
+    public void getTasks_repeatedReads_areServedFromCache() {
+        authenticateAs(username);
+
+        when(taskRepository.findViewsByOwner(username)).thenReturn(List.of(
+                TaskView.builder().title("Task A").dueDate(tomorrow).build()
+        ));
+
+        taskService.getTasks();
+        List<TaskView> result = taskService.getTasks();
 
         assertThat(result).hasSize(1);
-        assertThat(result.getFirst().getTitle()).isEqualTo("Task A");
-        assertThat(result.getFirst().getDueDate()).isEqualTo(tomorrow);
+        verify(taskRepository, times(1)).findViewsByOwner(username);
+    }
+
+    @Test
+    public void getTaskPage_moreRowsThanLimit_returnsNextCursor() {
+        authenticateAs(username);
+
+        List<TaskView> rows = List.of(
+                TaskView.builder().id(1L).title("Task A").dueDate(tomorrow).build(),
+                TaskView.builder().id(2L).title("Task B").dueDate(tomorrow).build(),
+                TaskView.builder().id(3L).title("Task C").dueDate(null).build()
+        );
+        when(taskRepository.findPage(eq(username), any(TaskPageQuery.class))).thenReturn(rows);
+
+        TaskPage page = taskService.getTaskPage(TaskPageQuery.builder().limit(2).build());
+
+        assertThat(page.getTasks()).extracting(TaskView::id).containsExactly(1L, 2L);
+        assertThat(TaskCursor.decode(page.getNextCursor())).isEqualTo(new TaskCursor(tomorrow, 2L));
+
+        // one extra row is requested to detect the next page
+        ArgumentCaptor<TaskPageQuery> captor = ArgumentCaptor.forClass(TaskPageQuery.class);
+        verify(taskRepository, times(1)).findPage(eq(username), captor.capture());
+        assertThat(captor.getValue().getLimit()).isEqualTo(3);
+        verify(taskRepository, never()).findViewsByOwner(anyString());
+    }
+
+    @Test
+    public void getTaskPage_lastPage_hasNoCursor() {
+        authenticateAs(username);
+
+        List<TaskView> rows = List.of(
+                TaskView.builder().id(1L).title("Task A").dueDate(tomorrow).build()
+        );
+        when(taskRepository.findPage(eq(username), any(TaskPageQuery.class))).thenReturn(rows);
+
+        TaskPage page = taskService.getTaskPage(TaskPageQuery.builder().limit(10).build());
+
+        assertThat(page.getTasks()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void getTaskPage_limitIsClampedToConfiguredBounds() {
+        authenticateAs(username);
+        properties.getPage().setDefaultSize(20);
+        properties.getPage().setMaxSize(100);
+        when(taskRepository.findPage(eq(username), any(TaskPageQuery.class))).thenReturn(List.of());
+
+        taskService.getTaskPage(TaskPageQuery.builder().limit(0).build());
+        taskService.getTaskPage(TaskPageQuery.builder().limit(10_000).build());
+
+        ArgumentCaptor<TaskPageQuery> captor = ArgumentCaptor.forClass(TaskPageQuery.class);
+        verify(taskRepository, times(2)).findPage(eq(username), captor.capture());
+        assertThat(captor.getAllValues()).extracting(TaskPageQuery::getLimit).containsExactly(21, 101);
+    }
+
+    @Test
+    public void getDueTasks_queriesFromTodayUntilBefore() {
+        authenticateAs(username);
+        LocalDate today = LocalDate.now();
+        when(taskRepository.findPage(eq(username), any(TaskPageQuery.class))).thenReturn(List.of());
+
+        taskService.getDueTasks(today.plusDays(3), null, 5);
+
+        ArgumentCaptor<TaskPageQuery> captor = ArgumentCaptor.forClass(TaskPageQuery.class);
+        verify(taskRepository, times(1)).findPage(eq(username), captor.capture());
+        TaskPageQuery sent = captor.getValue();
+        // dueAfter is exclusive, so yesterday admits tasks due today
+        assertThat(sent.getDueAfter()).isEqualTo(today.minusDays(1));
+        assertThat(sent.getDueBefore()).isEqualTo(today.plusDays(3));
+        assertThat(sent.getLimit()).isEqualTo(6);
+        verify(taskRepository, never()).findViewsByOwner(anyString());
+    }
+
+    @Test
+    public void getDueTasks_withoutBefore_coversTheConfiguredWindow() {
+        authenticateAs(username);
+        properties.getDue().setDefaultDays(7);
+        LocalDate today = LocalDate.now();
+        when(taskRepository.findPage(eq(username), any(TaskPageQuery.class))).thenReturn(List.of());
+
+        taskService.getDueTasks(null, null, 0);
 
-        verify(taskRepository, times(1)).findByOwner(username);
+        ArgumentCaptor<TaskPageQuery> captor = ArgumentCaptor.forClass(TaskPageQuery.class);
+        verify(taskRepository, times(1)).findPage(eq(username), captor.capture());
+        assertThat(captor.getValue().getDueBefore()).isEqualTo(today.plusDays(8));
+    }
+
+    @Test
+    public void getOverdueTasks_queriesBeforeTodayWithCursor() {
+        authenticateAs(username);
+        LocalDate today = LocalDate.now();
+        TaskCursor after = new TaskCursor(today.minusDays(10), 4L);
+        List<TaskView> rows = List.of(
+                TaskView.builder().id(5L).title("Late A").dueDate(today.minusDays(2)).build(),
+                TaskView.builder().id(6L).title("Late B").dueDate(today.minusDays(1)).build()
+        );
+        when(taskRepository.findPage(eq(username), any(TaskPageQuery.class))).thenReturn(rows);
+
+        TaskPage page = taskService.getOverdueTasks(after, 1);
+
+        assertThat(page.getTasks()).extracting(TaskView::id).containsExactly(5L);
+        assertThat(TaskCursor.decode(page.getNextCursor())).isEqualTo(new TaskCursor(today.minusDays(2), 5L));
+        ArgumentCaptor<TaskPageQuery> captor = ArgumentCaptor.forClass(TaskPageQuery.class);
+        verify(taskRepository, times(1)).findPage(eq(username), captor.capture());
+        assertThat(captor.getValue().getDueBefore()).isEqualTo(today);
+        assertThat(captor.getValue().getDueAfter()).isNull();
+        assertThat(captor.getValue().getAfter()).isEqualTo(after);
     }
 
     @Test
@@ -71,31 +233,35 @@ public class TaskServiceTests {
                 .dueDate(tomorrow)
                 .build();
 
-        List<TaskRequest> returned = List.of(
-                TaskRequest.builder().title("New Task").dueDate(tomorrow).owner(username).build()
-        );
-
-        // Save then return all for owner
-        when(taskRepository.findByOwner(username)).thenReturn(returned);
+        when(taskRepository.save(any(Task.class))).thenAnswer(inv -> {
+            Task task = inv.getArgument(0);
+            task.setId(42L);
+            return task;
+        });
 
-        List<TaskRequest> result = taskService.createTask(incoming);
+        TaskView result = taskService.createTask(incoming);
 
-        // Returned list assertions
-        assertThat(result).hasSize(1);
-        assertThat(result.getFirst().getTitle()).isEqualTo("New Task");
-        assertThat(result.getFirst().getDueDate()).isEqualTo(tomorrow);
-        assertThat(result.getFirst().getOwner()).isEqualTo(username);
+        // Returned view assertions
+        assertThat(result.id()).isEqualTo(42L);
+        assertThat(result.title()).isEqualTo("New Task");
+        assertThat(result.dueDate()).isEqualTo(tomorrow);
 
         // Verify saved entity had owner set by service
-        ArgumentCaptor<TaskRequest> saveCaptor = ArgumentCaptor.forClass(TaskRequest.class);
+        ArgumentCaptor<Task> saveCaptor = ArgumentCaptor.forClass(Task.class);
         verify(taskRepository, times(1)).save(saveCaptor.capture());
-        TaskRequest saved = saveCaptor.getValue();
+        Task saved = saveCaptor.getValue();
         assertThat(saved.getTitle()).isEqualTo("New Task");
         assertThat(saved.getDueDate()).isEqualTo(tomorrow);
         assertThat(saved.getOwner()).isEqualTo(username);
 
-        // Verify final list retrieval
-        verify(taskRepository, times(1)).findByOwner(username);
+        // Writes no longer re-read the owner's list
+        verify(taskRepository, never()).findViewsByOwner(anyString());
+
+        ArgumentCaptor<TaskChangedEvent> eventCaptor = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        verify(events, times(1)).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getOwner()).isEqualTo(username);
+        assertThat(eventCaptor.getValue().getType()).isEqualTo(TaskChangedEvent.Type.CREATED);
+        assertThat(eventCaptor.getValue().getTask()).isEqualTo(result);
     }
 
     @Test
@@ -105,7 +271,8 @@ public class TaskServiceTests {
         Long id = 10L;
 
         // Existing entity owned by user
-        TaskRequest existing = TaskRequest.builder()
+        Task existing = Task.builder()
+                .id(id)
                 .title("Old Title")
                 .dueDate(LocalDate.now())
                 .owner(username)
@@ -117,31 +284,27 @@ public class TaskServiceTests {
                 .dueDate(tomorrow)
                 .build();
 
-        List<TaskRequest> returned = List.of(
-                TaskRequest.builder().title("Updated Title").dueDate(tomorrow).owner(username).build()
-        );
-
         when(taskRepository.findByIdAndOwner(id, username)).thenReturn(Optional.of(existing));
-        when(taskRepository.findByOwner(username)).thenReturn(returned);
+        when(taskRepository.saveAndFlush(any(Task.class))).thenAnswer(inv -> inv.getArgument(0));
 
-        List<TaskRequest> result = taskService.updateTasks(patch, id);
+        TaskView result = taskService.updateTasks(patch, id, null);
 
-        // Returned list assertions
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getTitle()).isEqualTo("Updated Title");
-        assertThat(result.get(0).getDueDate()).isEqualTo(tomorrow);
+        // Returned view assertions
+        assertThat(result.id()).isEqualTo(id);
+        assertThat(result.title()).isEqualTo("Updated Title");
+        assertThat(result.dueDate()).isEqualTo(tomorrow);
 
-        // Verify repository.save called with the mutated existing entity
-        ArgumentCaptor<TaskRequest> saveCaptor = ArgumentCaptor.forClass(TaskRequest.class);
-        verify(taskRepository, times(1)).save(saveCaptor.capture());
-        TaskRequest saved = saveCaptor.getValue();
+        // Verify the mutated existing entity is saved and flushed
+        ArgumentCaptor<Task> saveCaptor = ArgumentCaptor.forClass(Task.class);
+        verify(taskRepository, times(1)).saveAndFlush(saveCaptor.capture());
+        Task saved = saveCaptor.getValue();
         assertThat(saved.getTitle()).isEqualTo("Updated Title");
         assertThat(saved.getDueDate()).isEqualTo(tomorrow);
         assertThat(saved.getOwner()).isEqualTo(username);
 
         // Verify lookups
         verify(taskRepository, times(1)).findByIdAndOwner(id, username);
-        verify(taskRepository, times(1)).findByOwner(username);
+        verify(taskRepository, never()).findViewsByOwner(anyString());
     }
 
     @Test
@@ -157,12 +320,68 @@ public class TaskServiceTests {
         when(taskRepository.findByIdAndOwner(id, username)).thenReturn(Optional.empty());
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
-                () -> taskService.updateTasks(patch, id));
+                () -> taskService.updateTasks(patch, id, null));
         assertThat(ex.getMessage()).contains("Task not found or not owned by user");
 
         verify(taskRepository, times(1)).findByIdAndOwner(id, username);
-        verify(taskRepository, never()).save(any(TaskRequest.class));
-        verify(taskRepository, never()).findByOwner(anyString());
+        verify(taskRepository, never()).saveAndFlush(any(Task.class));
+        verify(taskRepository, never()).findViewsByOwner(anyString());
+    }
+
+    @Test
+    public void updateTasks_matchingIfMatch_writes() {
+        authenticateAs(username);
+
+        Task existing = Task.builder().id(10L).title("Old").owner(username).version(3L).build();
+        when(taskRepository.findByIdAndOwner(10L, username)).thenReturn(Optional.of(existing));
+        when(taskRepository.saveAndFlush(any(Task.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        TaskView result = taskService.updateTasks(TaskRequest.builder().title("New").build(), 10L, "\"10-3\"");
+
+        assertThat(result.title()).isEqualTo("New");
+        verify(taskRepository, times(1)).saveAndFlush(existing);
+    }
+
+    @Test
+    public void updateTasks_staleIfMatch_throwsWithoutWriting() {
+        authenticateAs(username);
+
+        Task existing = Task.builder().id(10L).title("Old").owner(username).version(4L).build();
+        when(taskRepository.findByIdAndOwner(10L, username)).thenReturn(Optional.of(existing));
+
+        TaskVersionConflictException ex = assertThrows(TaskVersionConflictException.class,
+                () -> taskService.updateTasks(TaskRequest.builder().title("New").build(), 10L, "\"10-3\""));
+
+        assertThat(ex.getCurrent().version()).isEqualTo(4L);
+        assertThat(ex.getCurrent().title()).isEqualTo("Old");
+        assertThat(existing.getTitle()).isEqualTo("Old");
+        verify(taskRepository, never()).saveAndFlush(any(Task.class));
+        verify(events, never()).publishEvent(any());
+    }
+
+    @Test
+    public void updateTasks_withoutIfMatch_whenRequired_throws() {
+        authenticateAs(username);
+        properties.getConcurrency().setRequireIfMatch(true);
+
+        Task existing = Task.builder().id(10L).title("Old").owner(username).version(0L).build();
+        when(taskRepository.findByIdAndOwner(10L, username)).thenReturn(Optional.of(existing));
+
+        assertThrows(IfMatchRequiredException.class,
+                () -> taskService.updateTasks(TaskRequest.builder().title("New").build(), 10L, null));
+        verify(taskRepository, never()).saveAndFlush(any(Task.class));
+    }
+
+    @Test
+    public void deleteTask_staleIfMatch_throwsWithoutDeleting() {
+        authenticateAs(username);
+
+        Task existing = Task.builder().id(7L).title("To delete").owner(username).version(2L).build();
+        when(taskRepository.findByIdAndOwner(7L, username)).thenReturn(Optional.of(existing));
+
+        assertThrows(TaskVersionConflictException.class, () -> taskService.deleteTask(7L, "\"7-1\""));
+
+        verify(taskRepository, never()).delete(any(Task.class));
     }
 
     @Test
@@ -171,33 +390,25 @@ public class TaskServiceTests {
 
         Long id = 7L;
 
-        TaskRequest existing = TaskRequest.builder()
+        Task existing = Task.builder()
+                .id(id)
                 .title("To delete")
                 .dueDate(null)
                 .owner(username)
                 .build();
 
-        List<TaskRequest> remaining = List.of(
-                TaskRequest.builder().title("Remaining").dueDate(tomorrow).owner(username).build()
-        );
-
         when(taskRepository.findByIdAndOwner(id, username)).thenReturn(Optional.of(existing));
-        when(taskRepository.findByOwner(username)).thenReturn(remaining);
-
-        List<TaskRequest> result = taskService.deleteTask(id);
 
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getTitle()).isEqualTo("Remaining");
-        assertThat(result.get(0).getOwner()).isEqualTo(username);
+        taskService.deleteTask(id, null);
 
-        // Verify delete and subsequent fetch
-        ArgumentCaptor<TaskRequest> deleteCaptor = ArgumentCaptor.forClass(TaskRequest.class);
+        // Verify delete without a subsequent fetch
+        ArgumentCaptor<Task> deleteCaptor = ArgumentCaptor.forClass(Task.class);
         verify(taskRepository, times(1)).delete(deleteCaptor.capture());
-        TaskRequest deleted = deleteCaptor.getValue();
+        Task deleted = deleteCaptor.getValue();
         assertThat(deleted.getTitle()).isEqualTo("To delete");
         assertThat(deleted.getOwner()).isEqualTo(username);
 
-        verify(taskRepository, times(1)).findByOwner(username);
+        verify(taskRepository, never()).findViewsByOwner(anyString());
     }
 
     @Test
@@ -209,11 +420,85 @@ public class TaskServiceTests {
         when(taskRepository.findByIdAndOwner(id, username)).thenReturn(Optional.empty());
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
-                () -> taskService.deleteTask(id));
+                () -> taskService.deleteTask(id, null));
         assertThat(ex.getMessage()).contains("Task not found or not owned by user");
 
         verify(taskRepository, times(1)).findByIdAndOwner(id, username);
-        verify(taskRepository, never()).delete(any(TaskRequest.class));
-        verify(taskRepository, never()).findByOwner(anyString());
+        verify(taskRepository, never()).delete(any(Task.class));
+        verify(taskRepository, never()).findViewsByOwner(anyString());
+    }
+
+    @Test
+    public void applyBatch_mixedOperations_returnsPerItemResults() {
+        authenticateAs(username);
+
+        Task toUpdate = Task.builder().id(1L).title("Old").owner(username).build();
+        Task toDelete = Task.builder().id(2L).title("Gone").owner(username).build();
+        when(taskRepository.findByOwnerAndIdIn(eq(username), anyCollection())).thenReturn(List.of(toUpdate, toDelete));
+
+        List<BatchTaskResult> results = taskService.applyBatch(List.of(
+                BatchTaskOperation.builder().op(BatchTaskOperation.Op.CREATE).title("New").dueDate(tomorrow).build(),
+                BatchTaskOperation.builder().op(BatchTaskOperation.Op.UPDATE).id(1L).title("Renamed").build(),
+                BatchTaskOperation.builder().op(BatchTaskOperation.Op.DELETE).id(2L).build(),
+                BatchTaskOperation.builder().op(BatchTaskOperation.Op.DELETE).id(3L).build(),
+                BatchTaskOperation.builder().op(BatchTaskOperation.Op.CREATE).title(" ").build()
+        ));
+
+        assertThat(results).extracting(BatchTaskResult::getStatus).containsExactly(201, 200, 204, 404, 400);
+        assertThat(results.get(0).getTask().title()).isEqualTo("New");
+        assertThat(results.get(1).getTask().title()).isEqualTo("Renamed");
+        assertThat(results.get(2).getTask()).isNull();
+        assertThat(toUpdate.getTitle()).isEqualTo("Renamed");
+
+        // one lookup for all ids, one bulk save and one bulk delete
+        verify(taskRepository, times(1)).findByOwnerAndIdIn(eq(username), anyCollection());
+        ArgumentCaptor<List<Task>> insertCaptor = ArgumentCaptor.forClass(List.class);
+        verify(taskRepository, times(1)).saveAll(insertCaptor.capture());
+        assertThat(insertCaptor.getValue()).extracting(Task::getTitle).containsExactly("New");
+        assertThat(insertCaptor.getValue()).extracting(Task::getOwner).containsExactly(username);
+        verify(taskRepository, times(1)).deleteAll(List.of(toDelete));
+        verify(taskRepository, never()).findViewsByOwner(anyString());
+        verify(events, times(3)).publishEvent(any(TaskChangedEvent.class));
+    }
+
+    @Test
+    public void applyBatch_staleVersion_failsOnlyThatItem() {
+        authenticateAs(username);
+
+        Task first = Task.builder().id(1L).title("One").owner(username).version(2L).build();
+        Task second = Task.builder().id(2L).title("Two").owner(username).version(5L).build();
+        when(taskRepository.findByOwnerAndIdIn(eq(username), anyCollection())).thenReturn(List.of(first, second));
+
+        List<BatchTaskResult> results = taskService.applyBatch(List.of(
+                BatchTaskOperation.builder().op(BatchTaskOperation.Op.UPDATE).id(1L).version(2L).title("One again").build(),
+                BatchTaskOperation.builder().op(BatchTaskOperation.Op.DELETE).id(2L).version(4L).build()
+        ));
+
+        assertThat(results).extracting(BatchTaskResult::getStatus).containsExactly(200, 412);
+        assertThat(results.get(1).getError()).contains("current version is 5");
+        verify(taskRepository, times(1)).deleteAll(List.of());
+        verify(taskRepository, times(1)).flush();
+    }
+
+    @Test
+    public void searchTasks_returnsHitsInRankOrder() {
+        authenticateAs(username);
+        TaskView first = TaskView.builder().id(3L).title("Buy milk").build();
+        TaskView second = TaskView.builder().id(8L).title("Buy milkshake").build();
+        when(searchIndex.search(eq(username), eq("buy milk"), anyInt())).thenReturn(List.of(3L, 8L));
+        when(taskRepository.findViewsByOwnerAndIdIn(eq(username), anyCollection())).thenReturn(List.of(second, first));
+
+        List<TaskView> result = taskService.searchTasks("buy milk", 10);
+
+        assertThat(result).extracting(TaskView::id).containsExactly(3L, 8L);
+    }
+
+    @Test
+    public void searchTasks_noHits_skipsTheDatabase() {
+        authenticateAs(username);
+        when(searchIndex.search(eq(username), eq("nothing"), anyInt())).thenReturn(List.of());
+
+        assertThat(taskService.searchTasks("nothing", 10)).isEmpty();
+        verifyNoInteractions(taskRepository);
     }
 }
@@ -0,0 +1,39 @@
+package com.pollinate.task.service;
+
+import com.pollinate.task.model.TaskChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TaskVersionRegistryTests {
+
+    private final TaskVersionRegistry registry = new TaskVersionRegistry();
+
+    @Test
+    public void etag_changesOnlyWhenTheOwnerWrites() {
+        String before = registry.etag("alice");
+        String bob = registry.etag("bob");
+
+        registry.onTaskChanged(new TaskChangedEvent("alice", TaskChangedEvent.Type.CREATED, null));
+
+        assertThat(registry.etag("alice")).isNotEqualTo(before);
+        assertThat(registry.etag("bob")).isEqualTo(bob);
+        assertThat(before).isNotEqualTo(bob);
+    }
+
+    @Test
+    public void bump_concurrentWrites_countEveryChange() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 10_000; i++) {
+            executor.execute(() -> registry.bump("alice"));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(registry.current("alice")).isEqualTo(10_000);
+    }
+}
@@ -0,0 +1,83 @@
+package com.pollinate.task.service;
+
+import com.pollinate.task.exception.UsernameTakenException;
+import com.pollinate.task.model.AuthRequest;
+import com.pollinate.task.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parallel registrations of one name against the real database: without an existence
+ * check to race past, the unique constraint lets exactly one insert through.
+ */
+@SpringBootTest(properties = {
+        "password.strength=4",
+        "tasks.search.warm-on-startup=false"
+})
+public class UserRegistrationConcurrencyTests {
+
+    private static final int REGISTRATIONS = 32;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final String username = "contended-user";
+
+    @AfterEach
+    public void tearDown() {
+        AuthRequest user = userRepository.findByUsername(username);
+        if (user != null) {
+            userRepository.delete(user);
+        }
+    }
+
+    @Test
+    public void sameNameInParallel_exactlyOneRegistrationSucceeds() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Boolean>> registrations = new ArrayList<>();
+        for (int i = 0; i < REGISTRATIONS; i++) {
+            String password = "secret-" + i;
+            registrations.add(() -> {
+                start.await();
+                try {
+                    authService.saveUser(AuthRequest.builder().username(username).password(password).build());
+                    return true;
+                } catch (UsernameTakenException taken) {
+                    return false;
+                }
+            });
+        }
+
+        int succeeded = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(REGISTRATIONS)) {
+            List<Future<Boolean>> results = registrations.stream().map(executor::submit).toList();
+            start.countDown();
+            for (Future<Boolean> result : results) {
+                // anything other than success or 409 fails the test here
+                if (result.get()) {
+                    succeeded++;
+                }
+            }
+        }
+
+        assertThat(succeeded).isEqualTo(1);
+        assertThat(userRepository.findAll()).filteredOn(user -> user.getUsername().equals(username)).hasSize(1);
+        // later attempts are refused before hashing or touching the database
+        assertThat(authService.isKnownUsername(username)).isTrue();
+    }
+}
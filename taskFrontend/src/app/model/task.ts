@@ -1,5 +1,6 @@
 export interface AllTasksResponse {
     tasks: Task[];
+    nextCursor?: string | null;
 }
 
 export interface Task {
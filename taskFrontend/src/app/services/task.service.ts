@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
 import { AllTasksResponse, Task } from '../model/task';
-import { HttpClient } from '@angular/common/http';
-import { map, Observable } from 'rxjs';
+import { HttpClient, HttpParams } from '@angular/common/http';
+import { EMPTY, expand, Observable, reduce } from 'rxjs';
 
 @Injectable({
   providedIn: 'root'
@@ -15,12 +15,19 @@ export class TaskService {
     this.tasksUrl = 'http://localhost:8080';
   }
 
+  // the server pages the list, so follow nextCursor until the last page
   public getAll(): Observable<Task[]> {
-    return this.http.get<AllTasksResponse>(`${this.tasksUrl}/tasks`, { withCredentials: true }).pipe(
-      map(response => response.tasks)
+    return this.getPage().pipe(
+      expand(response => response.nextCursor ? this.getPage(response.nextCursor) : EMPTY),
+      reduce((tasks: Task[], response) => tasks.concat(response.tasks), [])
     );
   }
 
+  private getPage(cursor?: string): Observable<AllTasksResponse> {
+    const params = cursor ? new HttpParams().set('cursor', cursor) : undefined;
+    return this.http.get<AllTasksResponse>(`${this.tasksUrl}/tasks`, { params, withCredentials: true });
+  }
+
   public save(task: Task) {
     return this.http.post<Task>(`${this.tasksUrl}/tasks`, task, { withCredentials: true });
   }
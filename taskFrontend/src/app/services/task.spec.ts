@@ -45,6 +45,22 @@ describe('TaskService (Angular v21, Vitest)', () => {
       expect(tasks).toEqual(sampleTasks);
     });
 
+    it('follows nextCursor and concatenates every page', async () => {
+      const first: Task[] = [{ id: 1, title: 'Pay bills', dueDate: '2026-01-31' }];
+      const second: Task[] = [{ id: 2, title: 'Book flights', dueDate: null }];
+
+      const p = firstValueFrom(service.getAll().pipe(take(1)));
+
+      httpMock.expectOne(`${BASE_URL}/tasks`).flush({ tasks: first, nextCursor: 'abc+/=' });
+
+      const req = httpMock.expectOne(r => r.url === `${BASE_URL}/tasks` && r.params.get('cursor') === 'abc+/=');
+      expect(req.request.withCredentials).toBe(true);
+      req.flush({ tasks: second, nextCursor: null });
+
+      const tasks = await p;
+      expect(tasks).toEqual([...first, ...second]);
+    });
+
     it('propagates HTTP errors', async () => {
       const p = firstValueFrom(service.getAll().pipe(take(1)))
         .then(() => {